@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.client;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Client side time and volume counters for a single query. Every update is a
+ * single atomic add, so the recorder is cheap enough to be always on.
+ */
+@ThreadSafe
+public final class ClientTimings
+{
+    public enum Phase
+    {
+        /**
+         * DACP login ({@code /login}), only when the connection had no token
+         */
+        LOGIN,
+        /**
+         * DACP {@code /sql/execute}
+         */
+        EXECUTE,
+        /**
+         * query submission to the OLK or data center server
+         */
+        SUBMIT,
+        /**
+         * waiting for HTTP responses of result pages, including retries
+         */
+        HTTP_WAIT,
+        /**
+         * JSON decoding or page deserialization
+         */
+        DECODE,
+        /**
+         * converting decoded JSON values to their column types
+         */
+        FIX_DATA,
+        /**
+         * time the application spends between two {@code ResultSet.next()} calls
+         */
+        CONSUME,
+    }
+
+    private static final int PHASES = Phase.values().length;
+
+    private final AtomicLongArray nanos = new AtomicLongArray(PHASES);
+    private final AtomicLongArray counts = new AtomicLongArray(PHASES);
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder pages = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private volatile long lastBytes;
+
+    public void record(Phase phase, long elapsedNanos)
+    {
+        int index = requireNonNull(phase, "phase is null").ordinal();
+        nanos.addAndGet(index, elapsedNanos);
+        counts.incrementAndGet(index);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos} and returns the current {@link System#nanoTime()},
+     * so that consecutive phases can be chained without reading the clock twice.
+     */
+    public long recordSince(Phase phase, long startNanos)
+    {
+        long now = System.nanoTime();
+        record(phase, now - startNanos);
+        return now;
+    }
+
+    /**
+     * Records the size of a response
+     */
+    public void addBytes(long count)
+    {
+        bytes.add(count);
+        lastBytes = count;
+    }
+
+    public void addPage()
+    {
+        pages.increment();
+    }
+
+    public void addRows(long count)
+    {
+        rows.add(count);
+    }
+
+    public long getNanos(Phase phase)
+    {
+        return nanos.get(phase.ordinal());
+    }
+
+    public long getCount(Phase phase)
+    {
+        return counts.get(phase.ordinal());
+    }
+
+    public long getBytes()
+    {
+        return bytes.sum();
+    }
+
+    /**
+     * Size of the last response recorded by {@link #addBytes(long)}
+     */
+    public long getLastBytes()
+    {
+        return lastBytes;
+    }
+
+    public long getPages()
+    {
+        return pages.sum();
+    }
+
+    public long getRows()
+    {
+        return rows.sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("nanos", nanos)
+                .add("counts", counts)
+                .add("bytes", getBytes())
+                .add("pages", getPages())
+                .add("rows", getRows())
+                .toString();
+    }
+}
@@ -106,6 +106,7 @@ public class DataCenterHTTPClientV1
     private final HttpUrl serverURI;
     private final HttpUrl cancelUrl;
     private final String clientId;
+    private final ClientTimings timings = new ClientTimings();
 
     private long token;
     private final PagesSerde serde;
@@ -130,12 +131,14 @@ public class DataCenterHTTPClientV1
                 true).createPagesSerde();
 
         // Submit the query
+        DriverMetrics.get().statementStarted();
         DataCenterResponse result = null;
         int attempts = 0;
         while (attempts <= 10) {
-            Request request = HttpUtil.buildQueryRequest(this.clientId, session, queryId, query);
             try {
+                Request request = HttpUtil.buildQueryRequest(this.clientId, session, queryId, query);
                 if (attempts > 0) {
+                    DriverMetrics.get().httpRetry();
                     try {
                         MILLISECONDS.sleep(attempts * 10);
                     }
@@ -144,8 +147,8 @@ public class DataCenterHTTPClientV1
                     }
                 }
                 JsonResponse<DataCenterResponse> response = JsonResponse.execute(DATA_CENTER_RESPONSE_JSON_CODEC, httpClient, request);
+                timings.record(ClientTimings.Phase.SUBMIT, response.getResponseNanos());
                 if ((response.getStatusCode() != HTTP_OK) || !response.hasValue()) {
-                    state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
                     throw requestFailedException("starting query", request, response);
                 }
                 result = response.getValue();
@@ -154,20 +157,26 @@ public class DataCenterHTTPClientV1
             catch (UncheckedIOException ex) {
                 log.debug("Failed submitting query. Retrying...", ex);
             }
+            catch (RuntimeException e) {
+                // the statement is no longer in flight if it could not be submitted
+                finish(State.CLIENT_ERROR);
+                throw e;
+            }
             attempts++;
         }
         if (result == null) {
+            finish(State.CLIENT_ERROR);
             throw new RuntimeException("received null response from data center");
         }
         if (result.getState() == DataCenterResponse.State.FINISHED_ALREADY) {
             this.slug = null;
             this.cancelUrl = null;
-            state.compareAndSet(State.RUNNING, State.FINISHED);
+            finish(State.FINISHED);
         }
         else {
             // isQueryFinishedByOtherSplit = false;
             if (!result.isRegistered()) {
-                state.compareAndSet(State.RUNNING, State.FINISHED);
+                finish(State.FINISHED);
             }
             this.slug = result.getSlug();
             this.cancelUrl = this.serverURI.newBuilder().encodedPath(ROOT_URL + this.queryId + "/" + this.slug).build();
@@ -238,6 +247,12 @@ public class DataCenterHTTPClientV1
         return currentResults.get().getStats();
     }
 
+    @Override
+    public ClientTimings getTimings()
+    {
+        return timings;
+    }
+
     @Override
     public QueryStatusInfo currentStatusInfo()
     {
@@ -254,9 +269,11 @@ public class DataCenterHTTPClientV1
         if (dcSerializedPages == null) {
             return pages;
         }
+        long start = System.nanoTime();
         for (SerializedPage dcSerializedPage : dcSerializedPages) {
             pages.add(serde.deserialize(dcSerializedPage));
         }
+        timings.recordSince(ClientTimings.Phase.DECODE, start);
         return pages;
     }
 
@@ -373,11 +390,11 @@ public class DataCenterHTTPClientV1
         QueryStatusInfo queryStatusInfo = currentStatusInfo();
         if (queryStatusInfo.getNextUri() == null) {
             if (queryStatusInfo.getStats().getState().equals("FAILED")) {
-                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                finish(State.CLIENT_ERROR);
                 log.error("fetching next result failed.");
                 throw new RuntimeException("fetching next result failed.");
             }
-            state.compareAndSet(State.RUNNING, State.FINISHED);
+            finish(State.FINISHED);
             return false;
         }
         Request request = prepareRequest(this.nextURL(), this.session).build();
@@ -396,11 +413,12 @@ public class DataCenterHTTPClientV1
                 // requestTimeoutNanos is used for internal purpose
                 // The client retries upt to a maximum of requestTimeoutNanos and then fail
                 // This value is controlled by the ClientSession#clientRequestTimeout
-                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                finish(State.CLIENT_ERROR);
                 throw new RuntimeException(format("Error fetching next (attempts: %s, duration: %s)", attempts, sinceStart), cause);
             }
 
             if (attempts > 0) {
+                DriverMetrics.get().httpRetry();
                 // back-off on retry
                 try {
                     MILLISECONDS.sleep(attempts * 100);
@@ -413,21 +431,26 @@ public class DataCenterHTTPClientV1
                         Thread.currentThread().interrupt();
                     }
                     //todo: 02/12 : add DataResponse state
-                    state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                    finish(State.CLIENT_ERROR);
                     throw new RuntimeException("StatementClient thread was interrupted");
                 }
             }
             attempts++;
 
             JsonResponse<DataCenterQueryResults> response;
+            long requestStart = System.nanoTime();
             try {
                 response = JsonResponse.execute(DATA_CENTER_QUERY_RESULTS_JSON_CODEC, httpClient, request);
             }
             catch (RuntimeException e) {
                 // If there is a timeout, it will be SocketTimeoutException
+                timings.recordSince(ClientTimings.Phase.HTTP_WAIT, requestStart);
                 cause = e;
                 continue;
             }
+            timings.record(ClientTimings.Phase.HTTP_WAIT, response.getResponseNanos());
+            timings.record(ClientTimings.Phase.DECODE, response.getDecodeNanos());
+            timings.addBytes(response.getResponseBytes());
 
             if ((response.getStatusCode() == HTTP_OK) && response.hasValue()) {
                 processResponse(response.getHeaders(), response.getValue());
@@ -435,7 +458,7 @@ public class DataCenterHTTPClientV1
             }
 
             if (response.getStatusCode() != HTTP_UNAVAILABLE) {
-                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                finish(State.CLIENT_ERROR);
                 log.error("response.getStatusCode=%s", response.getStatusCode());
                 if (response.getException() != null) {
                     throw new RuntimeException("fetching next result: " + response.toString(), response.getException());
@@ -444,12 +467,16 @@ public class DataCenterHTTPClientV1
                     throw new RuntimeException("fetching next result: " + response.toString());
                 }
             }
+            DriverMetrics.get().serviceUnavailable();
         }
     }
 
     private void processResponse(Headers headers, DataCenterQueryResults results)
     {
         this.token++;
+        if (results.getData() != null) {
+            timings.addPage();
+        }
         if (results.getUseHeaderInformation()) {
             setCatalog.set(headers.get(PRESTO_SET_CATALOG));
             setSchema.set(headers.get(PRESTO_SET_SCHEMA));
@@ -519,7 +546,7 @@ public class DataCenterHTTPClientV1
     public void close()
     {
         // If the query is not done, abort the query.
-        if (state.compareAndSet(DataCenterHTTPClientV1.State.RUNNING, DataCenterHTTPClientV1.State.CLIENT_ABORTED)) {
+        if (finish(State.CLIENT_ABORTED)) {
             URI uri = this.cancelUrl.uri();
             if (uri != null) {
                 httpDelete(uri);
@@ -557,6 +584,15 @@ public class DataCenterHTTPClientV1
         }
     }
 
+    private boolean finish(State newState)
+    {
+        if (state.compareAndSet(State.RUNNING, newState)) {
+            DriverMetrics.get().statementFinished();
+            return true;
+        }
+        return false;
+    }
+
     private enum State
     {
         /**
@@ -0,0 +1,144 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.client;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JVM wide counters of the driver, shared by all connections. All updates are striped
+ * {@link LongAdder} adds or {@link LatencyHistogram} records, so none of them take a lock.
+ */
+@ThreadSafe
+public final class DriverMetrics
+{
+    private static final DriverMetrics INSTANCE = new DriverMetrics();
+
+    private final LongAdder openConnections = new LongAdder();
+    private final LongAdder inFlightStatements = new LongAdder();
+    private final LongAdder startedStatements = new LongAdder();
+    private final LongAdder httpRequests = new LongAdder();
+    private final LongAdder httpRetries = new LongAdder();
+    private final LongAdder serviceUnavailableResponses = new LongAdder();
+    private final LongAdder tokenRefreshes = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LatencyHistogram httpRequestLatency = new LatencyHistogram();
+    private final LatencyHistogram decodeLatency = new LatencyHistogram();
+
+    private DriverMetrics() {}
+
+    public static DriverMetrics get()
+    {
+        return INSTANCE;
+    }
+
+    public void connectionOpened()
+    {
+        openConnections.increment();
+    }
+
+    public void connectionClosed()
+    {
+        openConnections.decrement();
+    }
+
+    public void statementStarted()
+    {
+        startedStatements.increment();
+        inFlightStatements.increment();
+    }
+
+    public void statementFinished()
+    {
+        inFlightStatements.decrement();
+    }
+
+    public void httpRetry()
+    {
+        httpRetries.increment();
+    }
+
+    public void serviceUnavailable()
+    {
+        serviceUnavailableResponses.increment();
+    }
+
+    public void tokenRefreshed()
+    {
+        tokenRefreshes.increment();
+    }
+
+    public void responseReceived(long responseNanos, long responseBytes)
+    {
+        httpRequests.increment();
+        bytesReceived.add(responseBytes);
+        httpRequestLatency.record(responseNanos);
+    }
+
+    public void responseDecoded(long decodeNanos)
+    {
+        decodeLatency.record(decodeNanos);
+    }
+
+    public long getOpenConnections()
+    {
+        return openConnections.sum();
+    }
+
+    public long getInFlightStatements()
+    {
+        return inFlightStatements.sum();
+    }
+
+    public long getStartedStatements()
+    {
+        return startedStatements.sum();
+    }
+
+    public long getHttpRequests()
+    {
+        return httpRequests.sum();
+    }
+
+    public long getHttpRetries()
+    {
+        return httpRetries.sum();
+    }
+
+    public long getServiceUnavailableResponses()
+    {
+        return serviceUnavailableResponses.sum();
+    }
+
+    public long getTokenRefreshes()
+    {
+        return tokenRefreshes.sum();
+    }
+
+    public long getBytesReceived()
+    {
+        return bytesReceived.sum();
+    }
+
+    public LatencyHistogram getHttpRequestLatency()
+    {
+        return httpRequestLatency;
+    }
+
+    public LatencyHistogram getDecodeLatency()
+    {
+        return decodeLatency;
+    }
+}
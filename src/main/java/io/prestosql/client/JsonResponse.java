@@ -41,6 +41,9 @@ public final class JsonResponse<T>
     private final boolean hasValue;
     private final T value;
     private final IllegalArgumentException exception;
+    private long responseNanos;
+    private long responseBytes;
+    private long decodeNanos;
 
     private JsonResponse(int statusCode, String statusMessage, Headers headers, String responseBody)
     {
@@ -63,12 +66,15 @@ public final class JsonResponse<T>
 
         T value = null;
         IllegalArgumentException exception = null;
+        long start = System.nanoTime();
         try {
             value = jsonCodec.fromJson(responseBody);
         }
         catch (IllegalArgumentException e) {
             exception = new IllegalArgumentException(format("Unable to create %s from JSON response:\n[%s]", jsonCodec.getType(), responseBody), e);
         }
+        this.decodeNanos = System.nanoTime() - start;
+        DriverMetrics.get().responseDecoded(decodeNanos);
         this.hasValue = (exception == null);
         this.value = value;
         this.exception = exception;
@@ -113,6 +119,27 @@ public final class JsonResponse<T>
         return exception;
     }
 
+    /**
+     * Time from sending the request until the whole response body was read, following redirects.
+     */
+    public long getResponseNanos()
+    {
+        return responseNanos;
+    }
+
+    /**
+     * Size of the response body, or its length in characters when the server sent no content length.
+     */
+    public long getResponseBytes()
+    {
+        return responseBytes;
+    }
+
+    public long getDecodeNanos()
+    {
+        return decodeNanos;
+    }
+
     @Override
     public String toString()
     {
@@ -128,22 +155,34 @@ public final class JsonResponse<T>
 
     public static <T> JsonResponse<T> execute(JsonCodec<T> codec, OkHttpClient client, Request request)
     {
+        long start = System.nanoTime();
         try (Response response = client.newCall(request).execute()) {
             // TODO: fix in OkHttp: https://github.com/square/okhttp/issues/3111
             if ((response.code() == 307) || (response.code() == 308)) {
                 String location = response.header(LOCATION);
                 if (location != null) {
                     request = request.newBuilder().url(location).build();
-                    return execute(codec, client, request);
+                    JsonResponse<T> redirected = execute(codec, client, request);
+                    redirected.responseNanos = System.nanoTime() - start;
+                    return redirected;
                 }
             }
 
             ResponseBody responseBody = requireNonNull(response.body());
+            long contentLength = responseBody.contentLength();
             String body = responseBody.string();
+            long responseNanos = System.nanoTime() - start;
+            JsonResponse<T> result;
             if (isJson(responseBody.contentType())) {
-                return new JsonResponse<>(response.code(), response.message(), response.headers(), body, codec);
+                result = new JsonResponse<>(response.code(), response.message(), response.headers(), body, codec);
+            }
+            else {
+                result = new JsonResponse<>(response.code(), response.message(), response.headers(), body);
             }
-            return new JsonResponse<>(response.code(), response.message(), response.headers(), body);
+            result.responseNanos = responseNanos;
+            result.responseBytes = (contentLength >= 0) ? contentLength : body.length();
+            DriverMetrics.get().responseReceived(responseNanos, result.responseBytes);
+            return result;
         }
         catch (IOException e) {
             // OkHttp throws this after clearing the interrupt status
@@ -45,9 +45,37 @@ public class QueryResults
     private final List<Warning> warnings;
     private final String updateType;
     private final Long updateCount;
+    private final long fixDataNanos;
 
-    @JsonCreator
     public QueryResults(
+            String id,
+            URI infoUri,
+            URI partialCancelUri,
+            URI nextUri,
+            List<Column> columns,
+            List<List<Object>> data,
+            StatementStats stats,
+            QueryError error,
+            List<Warning> warnings,
+            String updateType,
+            Long updateCount)
+    {
+        this(
+                id,
+                infoUri,
+                partialCancelUri,
+                nextUri,
+                columns,
+                fixData(columns, data),
+                stats,
+                error,
+                firstNonNull(warnings, ImmutableList.of()),
+                updateType,
+                updateCount);
+    }
+
+    @JsonCreator
+    public static QueryResults fromJson(
             @JsonProperty("id") String id,
             @JsonProperty("infoUri") URI infoUri,
             @JsonProperty("partialCancelUri") URI partialCancelUri,
@@ -60,18 +88,22 @@ public class QueryResults
             @JsonProperty("updateType") String updateType,
             @JsonProperty("updateCount") Long updateCount)
     {
-        this(
+        long start = System.nanoTime();
+        Iterable<List<Object>> fixedData = fixData(columns, data);
+        long fixDataNanos = System.nanoTime() - start;
+        return new QueryResults(
                 id,
                 infoUri,
                 partialCancelUri,
                 nextUri,
                 columns,
-                fixData(columns, data),
+                fixedData,
                 stats,
                 error,
                 firstNonNull(warnings, ImmutableList.of()),
                 updateType,
-                updateCount);
+                updateCount,
+                fixDataNanos);
     }
 
     public QueryResults(
@@ -86,6 +118,23 @@ public class QueryResults
             List<Warning> warnings,
             String updateType,
             Long updateCount)
+    {
+        this(id, infoUri, partialCancelUri, nextUri, columns, data, stats, error, warnings, updateType, updateCount, 0);
+    }
+
+    private QueryResults(
+            String id,
+            URI infoUri,
+            URI partialCancelUri,
+            URI nextUri,
+            List<Column> columns,
+            Iterable<List<Object>> data,
+            StatementStats stats,
+            QueryError error,
+            List<Warning> warnings,
+            String updateType,
+            Long updateCount,
+            long fixDataNanos)
     {
         this.id = requireNonNull(id, "id is null");
         this.infoUri = requireNonNull(infoUri, "infoUri is null");
@@ -99,6 +148,7 @@ public class QueryResults
         this.warnings = ImmutableList.copyOf(requireNonNull(warnings, "warnings is null"));
         this.updateType = updateType;
         this.updateCount = updateCount;
+        this.fixDataNanos = fixDataNanos;
     }
 
     @JsonProperty
@@ -185,6 +235,14 @@ public class QueryResults
         return updateCount;
     }
 
+    /**
+     * Time spent converting the decoded JSON rows to their column types, not serialized.
+     */
+    public long getFixDataNanos()
+    {
+        return fixDataNanos;
+    }
+
     @Override
     public String toString()
     {
@@ -43,6 +43,11 @@ public interface StatementClient
 
     StatementStats getStats();
 
+    /**
+     * Client side timings of this query, updated while the query is submitted and its results are fetched.
+     */
+    ClientTimings getTimings();
+
     QueryStatusInfo currentStatusInfo();
 
     QueryData currentData();
@@ -23,4 +23,9 @@ public final class StatementClientFactory
     {
         return new StatementClientV1(httpClient, session, query);
     }
+
+    public static StatementClient newStatementClient(OkHttpClient httpClient, ClientSession session, String query, ClientTimings timings)
+    {
+        return new StatementClientV1(httpClient, session, query, timings);
+    }
 }
@@ -98,6 +98,7 @@ class StatementClientV1
     private final Duration requestTimeoutNanos;
     private final String user;
     private final String clientCapabilities;
+    private final ClientTimings timings;
 
     private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
     
@@ -105,10 +106,16 @@ class StatementClientV1
     private final ClientSession session;
 
     public StatementClientV1(OkHttpClient httpClient, ClientSession session, String query)
+    {
+        this(httpClient, session, query, new ClientTimings());
+    }
+
+    public StatementClientV1(OkHttpClient httpClient, ClientSession session, String query, ClientTimings timings)
     {
         requireNonNull(httpClient, "httpClient is null");
         requireNonNull(session, "session is null");
         requireNonNull(query, "query is null");
+        this.timings = requireNonNull(timings, "timings is null");
 
         this.httpClient = httpClient;
         this.timeZone = session.getTimeZone();
@@ -119,12 +126,22 @@ class StatementClientV1
         this.session = session;
         
         
+        DriverMetrics.get().statementStarted();
         if (isPrestoType()) { 
             Request request = buildQueryRequest(session, query);
 
-            JsonResponse<QueryResults> response = JsonResponse.execute(QUERY_RESULTS_CODEC, httpClient, request);
+            JsonResponse<QueryResults> response;
+            try {
+                response = JsonResponse.execute(QUERY_RESULTS_CODEC, httpClient, request);
+            }
+            catch (RuntimeException e) {
+                finish(State.CLIENT_ERROR);
+                throw e;
+            }
+            timings.record(ClientTimings.Phase.SUBMIT, response.getResponseNanos());
+            recordDecode(response);
             if ((response.getStatusCode() != HTTP_OK) || !response.hasValue()) {
-                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                finish(State.CLIENT_ERROR);
                 throw requestFailedException("starting query", request, response);
             }
 
@@ -297,6 +314,12 @@ class StatementClientV1
         return currentResults.get().getStats();
     }
 
+    @Override
+    public ClientTimings getTimings()
+    {
+        return timings;
+    }
+
     @Override
     public QueryStatusInfo currentStatusInfo()
     {
@@ -396,7 +419,7 @@ class StatementClientV1
 
         URI nextUri = currentStatusInfo().getNextUri();
         if (nextUri == null) {
-            state.compareAndSet(State.RUNNING, State.FINISHED);
+            finish(State.FINISHED);
             return false;
         }
 
@@ -413,11 +436,12 @@ class StatementClientV1
 
             Duration sinceStart = Duration.nanosSince(start);
             if (attempts > 0 && sinceStart.compareTo(requestTimeoutNanos) > 0) {
-                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                finish(State.CLIENT_ERROR);
                 throw new RuntimeException(format("Error fetching next (attempts: %s, duration: %s)", attempts, sinceStart), cause);
             }
 
             if (attempts > 0) {
+                DriverMetrics.get().httpRetry();
                 // back-off on retry
                 try {
                     MILLISECONDS.sleep(attempts * 100);
@@ -429,20 +453,24 @@ class StatementClientV1
                     finally {
                         Thread.currentThread().interrupt();
                     }
-                    state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                    finish(State.CLIENT_ERROR);
                     throw new RuntimeException("StatementClient thread was interrupted");
                 }
             }
             attempts++;
 
             JsonResponse<QueryResults> response;
+            long requestStart = System.nanoTime();
             try {
                 response = JsonResponse.execute(QUERY_RESULTS_CODEC, httpClient, request);
             }
             catch (RuntimeException e) {
+                timings.recordSince(ClientTimings.Phase.HTTP_WAIT, requestStart);
                 cause = e;
                 continue;
             }
+            timings.record(ClientTimings.Phase.HTTP_WAIT, response.getResponseNanos());
+            recordDecode(response);
 
             if ((response.getStatusCode() == HTTP_OK) && response.hasValue()) {
                 processResponse(response.getHeaders(), response.getValue());
@@ -450,9 +478,23 @@ class StatementClientV1
             }
 
             if (response.getStatusCode() != HTTP_UNAVAILABLE) {
-                state.compareAndSet(State.RUNNING, State.CLIENT_ERROR);
+                finish(State.CLIENT_ERROR);
                 throw requestFailedException("fetching next", request, response);
             }
+            DriverMetrics.get().serviceUnavailable();
+        }
+    }
+
+    private void recordDecode(JsonResponse<QueryResults> response)
+    {
+        timings.addBytes(response.getResponseBytes());
+        if (response.hasValue()) {
+            long fixDataNanos = response.getValue().getFixDataNanos();
+            timings.record(ClientTimings.Phase.DECODE, response.getDecodeNanos() - fixDataNanos);
+            timings.record(ClientTimings.Phase.FIX_DATA, fixDataNanos);
+            if (response.getValue().getData() != null) {
+                timings.addPage();
+            }
         }
     }
 
@@ -516,7 +558,7 @@ class StatementClientV1
     public void close()
     {
         // If the query is not done, abort the query.
-        if (state.compareAndSet(State.RUNNING, State.CLIENT_ABORTED)) {
+        if (finish(State.CLIENT_ABORTED)) {
             URI uri = currentResults.get().getNextUri();
             if (uri != null) {
                 httpDelete(uri);
@@ -559,6 +601,15 @@ class StatementClientV1
         }
     }
 
+    private boolean finish(State newState)
+    {
+        if (state.compareAndSet(State.RUNNING, newState)) {
+            DriverMetrics.get().statementFinished();
+            return true;
+        }
+        return false;
+    }
+
     private enum State
     {
         /**
@@ -65,17 +65,21 @@ public class DataCenterRowIterable
             extends AbstractIterator<List<Object>>
     {
         private final ConnectorSession session;
-        private final List<Column> columns;
+        private final List<Type> types;
         private final Page page;
         private int position = -1;
-        private TypeManager typeManager;
 
         private DataCenterRowIterator(ConnectorSession session, List<Column> columns, Page page, TypeManager typeManager)
         {
             this.session = session;
-            this.columns = columns;
             this.page = page;
-            this.typeManager = typeManager;
+
+            // resolve the column types once instead of for every row
+            List<Type> columnTypes = new ArrayList<>(page.getChannelCount());
+            for (int channel = 0; channel < page.getChannelCount(); channel++) {
+                columnTypes.add(parseType(typeManager, columns.get(channel).getType().toLowerCase(Locale.ENGLISH)));
+            }
+            this.types = columnTypes;
         }
 
         @Override
@@ -88,10 +92,8 @@ public class DataCenterRowIterable
 
             List<Object> values = new ArrayList<>(page.getChannelCount());
             for (int channel = 0; channel < page.getChannelCount(); channel++) {
-                String typeStr = columns.get(channel).getType().toLowerCase(Locale.ENGLISH);
-                Type type = parseType(typeManager, typeStr);
                 Block block = page.getBlock(channel);
-                values.add(type.getObjectValue(session, block, position));
+                values.add(types.get(channel).getObjectValue(session, block, position));
             }
             return Collections.unmodifiableList(values);
         }
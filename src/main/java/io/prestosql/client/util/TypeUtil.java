@@ -14,6 +14,8 @@
  */
 package io.prestosql.client.util;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import io.prestosql.spi.type.ParametricType;
 import io.prestosql.spi.type.StandardTypes;
@@ -27,6 +29,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -55,6 +59,13 @@ import static io.prestosql.spi.type.VarcharParametricType.VARCHAR;
 
 public class TypeUtil
 {
+    private static final long MAX_CACHED_TYPES = 10_000;
+
+    // parsed types per type manager, by type name as given and by canonical signature
+    private static final Cache<TypeManager, Cache<String, Type>> TYPE_CACHE = CacheBuilder.newBuilder()
+            .weakKeys()
+            .build();
+
     private static final Pattern DESCRIBE_TYPE_PATTERN = Pattern.compile("(?<type>[a-zA-Z1-9 _]+)");
 
     private static final Map<String, ParametricType> PARAMETRIC_TYPE_MAP
@@ -126,13 +137,42 @@ public class TypeUtil
     }
 
     /**
-     * Parse type type.
+     * Parse type type. Types are interned per type manager: names with the same canonical
+     * signature resolve to the same instance, and a name is only parsed the first time.
      *
      * @param typeManager the type manager.
      * @param typeName the type name
      * @return the type
      */
     public static Type parseType(TypeManager typeManager, String typeName)
+    {
+        Cache<String, Type> types = getTypeCache(typeManager);
+        Type type = types.getIfPresent(typeName);
+        if (type == null) {
+            type = parseUncachedType(typeManager, typeName);
+            ConcurrentMap<String, Type> cachedTypes = types.asMap();
+            Type interned = cachedTypes.putIfAbsent(type.getTypeSignature().toString(), type);
+            if (interned != null) {
+                type = interned;
+            }
+            cachedTypes.putIfAbsent(typeName, type);
+        }
+        return type;
+    }
+
+    private static Cache<String, Type> getTypeCache(TypeManager typeManager)
+    {
+        try {
+            return TYPE_CACHE.get(typeManager, () -> CacheBuilder.newBuilder()
+                    .maximumSize(MAX_CACHED_TYPES)
+                    .build());
+        }
+        catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static Type parseUncachedType(TypeManager typeManager, String typeName)
     {
         Type hetuType = null;
 
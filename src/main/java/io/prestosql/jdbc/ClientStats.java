@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.jdbc;
+
+import io.prestosql.client.ClientTimings;
+
+import static io.prestosql.client.ClientTimings.Phase.CONSUME;
+import static io.prestosql.client.ClientTimings.Phase.DECODE;
+import static io.prestosql.client.ClientTimings.Phase.EXECUTE;
+import static io.prestosql.client.ClientTimings.Phase.FIX_DATA;
+import static io.prestosql.client.ClientTimings.Phase.HTTP_WAIT;
+import static io.prestosql.client.ClientTimings.Phase.LOGIN;
+import static io.prestosql.client.ClientTimings.Phase.SUBMIT;
+
+/**
+ * Client side breakdown of where the time of a query went, in nanoseconds.
+ */
+public final class ClientStats
+{
+    private final long loginNanos;
+    private final long executeNanos;
+    private final long submitNanos;
+    private final long httpWaitNanos;
+    private final long httpRequests;
+    private final long decodeNanos;
+    private final long fixDataNanos;
+    private final long consumeNanos;
+    private final long receivedBytes;
+    private final long receivedPages;
+    private final long consumedRows;
+
+    public ClientStats(
+            long loginNanos,
+            long executeNanos,
+            long submitNanos,
+            long httpWaitNanos,
+            long httpRequests,
+            long decodeNanos,
+            long fixDataNanos,
+            long consumeNanos,
+            long receivedBytes,
+            long receivedPages,
+            long consumedRows)
+    {
+        this.loginNanos = loginNanos;
+        this.executeNanos = executeNanos;
+        this.submitNanos = submitNanos;
+        this.httpWaitNanos = httpWaitNanos;
+        this.httpRequests = httpRequests;
+        this.decodeNanos = decodeNanos;
+        this.fixDataNanos = fixDataNanos;
+        this.consumeNanos = consumeNanos;
+        this.receivedBytes = receivedBytes;
+        this.receivedPages = receivedPages;
+        this.consumedRows = consumedRows;
+    }
+
+    static ClientStats create(ClientTimings timings)
+    {
+        return new ClientStats(
+                timings.getNanos(LOGIN),
+                timings.getNanos(EXECUTE),
+                timings.getNanos(SUBMIT),
+                timings.getNanos(HTTP_WAIT),
+                timings.getCount(HTTP_WAIT),
+                timings.getNanos(DECODE),
+                timings.getNanos(FIX_DATA),
+                timings.getNanos(CONSUME),
+                timings.getBytes(),
+                timings.getPages(),
+                timings.getRows());
+    }
+
+    /**
+     * DACP login, zero when the connection already held a token.
+     */
+    public long getLoginNanos()
+    {
+        return loginNanos;
+    }
+
+    /**
+     * DACP {@code /sql/execute} call.
+     */
+    public long getExecuteNanos()
+    {
+        return executeNanos;
+    }
+
+    /**
+     * Submission of the query to the OLK server.
+     */
+    public long getSubmitNanos()
+    {
+        return submitNanos;
+    }
+
+    /**
+     * Waiting for result pages, including failed and retried requests.
+     */
+    public long getHttpWaitNanos()
+    {
+        return httpWaitNanos;
+    }
+
+    public long getHttpRequests()
+    {
+        return httpRequests;
+    }
+
+    public long getDecodeNanos()
+    {
+        return decodeNanos;
+    }
+
+    public long getFixDataNanos()
+    {
+        return fixDataNanos;
+    }
+
+    /**
+     * Time the application spent between {@code ResultSet.next()} calls.
+     */
+    public long getConsumeNanos()
+    {
+        return consumeNanos;
+    }
+
+    public long getReceivedBytes()
+    {
+        return receivedBytes;
+    }
+
+    public long getReceivedPages()
+    {
+        return receivedPages;
+    }
+
+    public long getConsumedRows()
+    {
+        return consumedRows;
+    }
+}
@@ -18,6 +18,7 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.net.HostAndPort;
+import io.airlift.units.DataSize;
 
 import java.io.File;
 import java.util.List;
@@ -42,6 +43,7 @@ final class ConnectionProperties
     public static final ConnectionProperty<Integer> PAGE_SIZE = new PageSize();
     public static final ConnectionProperty<Integer> TASK_TIMEOUT = new TaskTimeout();
     public static final ConnectionProperty<Integer> REQUEST_INTERVAL = new RequestInterval();
+    public static final ConnectionProperty<DataSize> STREAMING_BUFFER_SIZE = new StreamingBufferSize();
     public static final ConnectionProperty<HostAndPort> SOCKS_PROXY = new SocksProxy();
     public static final ConnectionProperty<HostAndPort> HTTP_PROXY = new HttpProxy();
     public static final ConnectionProperty<String> APPLICATION_NAME_PREFIX = new ApplicationNamePrefix();
@@ -67,6 +69,7 @@ final class ConnectionProperties
             .add(PAGE_SIZE)
             .add(TASK_TIMEOUT)
             .add(REQUEST_INTERVAL)
+            .add(STREAMING_BUFFER_SIZE)
             .add(SOCKS_PROXY)
             .add(HTTP_PROXY)
             .add(APPLICATION_NAME_PREFIX)
@@ -166,6 +169,15 @@ final class ConnectionProperties
         }
     }    
     
+    private static class StreamingBufferSize
+            extends AbstractConnectionProperty<DataSize>
+    {
+        public StreamingBufferSize()
+        {
+            super("streamingBufferSize", NOT_REQUIRED, ALLOWED, DataSize::valueOf);
+        }
+    }
+
     private static class SocksProxy
             extends AbstractConnectionProperty<HostAndPort>
     {
@@ -0,0 +1,493 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.jdbc;
+
+import com.google.common.collect.ImmutableList;
+import org.joda.time.DateTimeZone;
+import org.joda.time.LocalDateTime;
+
+import java.math.BigDecimal;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.prestosql.spi.type.Decimals.parseUnscaled;
+import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.unscaledDecimalToBigInteger;
+import static java.lang.Math.floorDiv;
+import static java.lang.Math.floorMod;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A page of result rows whose temporal and decimal columns are decoded once into primitive
+ * encodings, so that the typed getters of {@link PrestoResultSet} are arithmetic instead of parsing:
+ * <ul>
+ * <li>{@code date}: days since epoch</li>
+ * <li>{@code time}: millis of day</li>
+ * <li>{@code timestamp}: local millis since epoch</li>
+ * <li>{@code timestamp with time zone}: millis since epoch plus the zone</li>
+ * <li>{@code decimal}: the unscaled value as a long, or as an unscaled 128 bit decimal above 18 digits</li>
+ * </ul>
+ * Rows keep the values as received, and values the strict decoder does not accept are left undecoded,
+ * so {@code getString} and error reporting behave exactly as before.
+ */
+final class DecodedPage
+{
+    static final long MILLIS_PER_DAY = 86_400_000L;
+
+    // java.util.TimeZone lists transitions from 1900 to 2037 only, replaces local mean time by the first
+    // standard offset, and uses recurring rules afterwards, which differ from the zone rules for some zones
+    private static final long MIN_CALENDAR_TRANSITION_MILLIS = -2_208_988_800_000L;
+    private static final long MAX_CALENDAR_TRANSITION_MILLIS = 2_114_380_800_000L;
+    private static final int MAX_SHORT_DECIMAL_DIGITS = 18;
+    private static final int MAX_LONG_DECIMAL_DIGITS = 38;
+
+    private static final Map<DateTimeZone, CalendarZone> CALENDAR_ZONES = new ConcurrentHashMap<>();
+    private static final Map<DateTimeZone, ZoneId> ZONE_IDS = new ConcurrentHashMap<>();
+
+    enum Encoding
+    {
+        NONE,
+        DATE,
+        TIME,
+        TIMESTAMP,
+        TIMESTAMP_WITH_TIME_ZONE,
+        SHORT_DECIMAL,
+        LONG_DECIMAL,
+    }
+
+    private final Encoding[] encodings;
+    private final int[] scales;
+    private final List<List<Object>> rows;
+    private final boolean[][] decoded;
+    private final long[][] values;
+    private final DateTimeZone[][] zones;
+    private final long[][] longDecimals;
+
+    private DecodedPage(Encoding[] encodings, int[] scales, List<List<Object>> rows)
+    {
+        this.encodings = encodings;
+        this.scales = scales;
+        this.rows = rows;
+        this.decoded = new boolean[encodings.length][];
+        this.values = new long[encodings.length][];
+        this.zones = new DateTimeZone[encodings.length][];
+        this.longDecimals = new long[encodings.length][];
+
+        for (int column = 0; column < encodings.length; column++) {
+            if (encodings[column] != Encoding.NONE) {
+                decodeColumn(column);
+            }
+        }
+    }
+
+    static Encoding[] getEncodings(List<ColumnInfo> columns)
+    {
+        Encoding[] encodings = new Encoding[columns.size()];
+        for (int i = 0; i < encodings.length; i++) {
+            encodings[i] = getEncoding(columns.get(i));
+        }
+        return encodings;
+    }
+
+    private static Encoding getEncoding(ColumnInfo column)
+    {
+        String typeName = column.getColumnTypeName();
+        switch (column.getColumnType()) {
+            case Types.DATE:
+                return Encoding.DATE;
+            case Types.TIME:
+                return typeName.equalsIgnoreCase("time") ? Encoding.TIME : Encoding.NONE;
+            case Types.TIMESTAMP:
+                if (typeName.equalsIgnoreCase("timestamp")) {
+                    return Encoding.TIMESTAMP;
+                }
+                return typeName.equalsIgnoreCase("timestamp with time zone") ? Encoding.TIMESTAMP_WITH_TIME_ZONE : Encoding.NONE;
+            case Types.DECIMAL:
+                return (column.getPrecision() <= MAX_SHORT_DECIMAL_DIGITS) ? Encoding.SHORT_DECIMAL : Encoding.LONG_DECIMAL;
+            default:
+                return Encoding.NONE;
+        }
+    }
+
+    static int[] getScales(List<ColumnInfo> columns)
+    {
+        int[] scales = new int[columns.size()];
+        for (int i = 0; i < scales.length; i++) {
+            scales[i] = columns.get(i).getScale();
+        }
+        return scales;
+    }
+
+    /**
+     * Returns the rows of the page, decoded if any column has an encoding.
+     */
+    static Iterable<List<Object>> decode(Iterable<List<Object>> page, Encoding[] encodings, int[] scales)
+    {
+        boolean decodable = false;
+        for (Encoding encoding : encodings) {
+            decodable |= encoding != Encoding.NONE;
+        }
+        if (!decodable) {
+            return page;
+        }
+        return new DecodedPage(encodings, scales, ImmutableList.copyOf(page)).new DecodedRows();
+    }
+
+    private void decodeColumn(int column)
+    {
+        Encoding encoding = encodings[column];
+        int positions = rows.size();
+        boolean[] columnDecoded = new boolean[positions];
+        long[] columnValues = new long[positions];
+        DateTimeZone[] columnZones = (encoding == Encoding.TIMESTAMP_WITH_TIME_ZONE) ? new DateTimeZone[positions] : null;
+        long[] columnDecimals = (encoding == Encoding.LONG_DECIMAL) ? new long[positions * 2] : null;
+
+        for (int position = 0; position < positions; position++) {
+            Object value = rows.get(position).get(column);
+            if (!(value instanceof String)) {
+                continue;
+            }
+            String string = (String) value;
+            switch (encoding) {
+                case DATE:
+                    columnValues[position] = parseEpochDay(string, 0);
+                    columnDecoded[position] = string.length() == 10 && columnValues[position] != Long.MIN_VALUE;
+                    break;
+                case TIME:
+                    columnValues[position] = parseMillisOfDay(string, 0);
+                    columnDecoded[position] = string.length() == 12 && columnValues[position] >= 0;
+                    break;
+                case TIMESTAMP:
+                    columnValues[position] = parseLocalMillis(string);
+                    columnDecoded[position] = string.length() == 23 && columnValues[position] != Long.MIN_VALUE;
+                    break;
+                case TIMESTAMP_WITH_TIME_ZONE:
+                    columnDecoded[position] = decodeTimestampWithTimeZone(string, position, columnValues, columnZones);
+                    break;
+                case SHORT_DECIMAL:
+                    columnDecoded[position] = decodeShortDecimal(string, scales[column], position, columnValues);
+                    break;
+                case LONG_DECIMAL:
+                    columnDecoded[position] = decodeLongDecimal(string, scales[column], columnDecimals, position * 2);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+            }
+        }
+
+        decoded[column] = columnDecoded;
+        values[column] = columnValues;
+        zones[column] = columnZones;
+        longDecimals[column] = columnDecimals;
+    }
+
+    private static boolean decodeTimestampWithTimeZone(String value, int position, long[] millis, DateTimeZone[] zones)
+    {
+        long localMillis = parseLocalMillis(value);
+        if (localMillis == Long.MIN_VALUE || value.length() < 25 || value.charAt(23) != ' ') {
+            return false;
+        }
+        DateTimeZone zone;
+        try {
+            zone = DateTimeZone.forID(value.substring(24));
+        }
+        catch (IllegalArgumentException e) {
+            return false;
+        }
+        // same resolution as parsing the value with a zone, local times in a gap are rejected
+        int offset = zone.getOffsetFromLocal(localMillis);
+        long instant = localMillis - offset;
+        if (zone.getOffset(instant) != offset) {
+            return false;
+        }
+        millis[position] = instant;
+        zones[position] = zone;
+        return true;
+    }
+
+    private static boolean decodeShortDecimal(String value, int scale, int position, long[] unscaled)
+    {
+        int digits = countDecimalDigits(value, scale);
+        if (digits < 0 || digits > MAX_SHORT_DECIMAL_DIGITS) {
+            return false;
+        }
+        long result = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                result = result * 10 + (c - '0');
+            }
+        }
+        unscaled[position] = (value.charAt(0) == '-') ? -result : result;
+        return true;
+    }
+
+    private static boolean decodeLongDecimal(String value, int scale, long[] unscaled, int offset)
+    {
+        int digits = countDecimalDigits(value, scale);
+        if (digits < 0 || digits > MAX_LONG_DECIMAL_DIGITS) {
+            return false;
+        }
+        return parseUnscaled(value, unscaled, offset) == scale;
+    }
+
+    /**
+     * Converts an unscaled decimal given by its raw (low, high) longs, without a BigInteger for values that fit in a long.
+     */
+    static BigDecimal toBigDecimal(long rawLow, long rawHigh, int scale)
+    {
+        if ((rawHigh & Long.MAX_VALUE) == 0 && rawLow >= 0) {
+            return BigDecimal.valueOf(rawHigh < 0 ? -rawLow : rawLow, scale);
+        }
+        return new BigDecimal(unscaledDecimalToBigInteger(rawLow, rawHigh), scale);
+    }
+
+    /**
+     * Returns the number of digits of a plain decimal string with exactly {@code scale} fraction
+     * digits, or -1 if the value has any other form.
+     */
+    private static int countDecimalDigits(String value, int scale)
+    {
+        int length = value.length();
+        int start = (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) ? 1 : 0;
+        int point = -1;
+        int digits = 0;
+        for (int i = start; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            }
+            else if (c == '.' && point < 0) {
+                point = i;
+            }
+            else {
+                return -1;
+            }
+        }
+        int fractionDigits = (point < 0) ? 0 : length - point - 1;
+        if (digits == 0 || fractionDigits != scale || point == start || (point >= 0 && fractionDigits == 0)) {
+            return -1;
+        }
+        return digits;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd HH:mm:ss.SSS}, returning {@link Long#MIN_VALUE} if the value has any other form.
+     */
+    private static long parseLocalMillis(String value)
+    {
+        if (value.length() < 23 || value.charAt(10) != ' ') {
+            return Long.MIN_VALUE;
+        }
+        long epochDay = parseEpochDay(value, 0);
+        long millisOfDay = parseMillisOfDay(value, 11);
+        if (epochDay == Long.MIN_VALUE || millisOfDay < 0) {
+            return Long.MIN_VALUE;
+        }
+        return epochDay * MILLIS_PER_DAY + millisOfDay;
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd} at the offset, returning {@link Long#MIN_VALUE} if the value has any other form.
+     */
+    private static long parseEpochDay(String value, int offset)
+    {
+        if (value.length() < offset + 10 || value.charAt(offset + 4) != '-' || value.charAt(offset + 7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = parseDigits(value, offset, 4);
+        int month = parseDigits(value, offset + 5, 2);
+        int day = parseDigits(value, offset + 8, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+            return Long.MIN_VALUE;
+        }
+        // days from civil, see http://howardhinnant.github.io/date_algorithms.html
+        int y = (month <= 2) ? year - 1 : year;
+        int era = floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + ((month > 2) ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+
+    /**
+     * Parses {@code HH:mm:ss.SSS} at the offset, returning -1 if the value has any other form.
+     */
+    private static long parseMillisOfDay(String value, int offset)
+    {
+        if (value.length() < offset + 12 || value.charAt(offset + 2) != ':' || value.charAt(offset + 5) != ':' || value.charAt(offset + 8) != '.') {
+            return -1;
+        }
+        int hour = parseDigits(value, offset, 2);
+        int minute = parseDigits(value, offset + 3, 2);
+        int second = parseDigits(value, offset + 6, 2);
+        int millis = parseDigits(value, offset + 9, 3);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || millis < 0) {
+            return -1;
+        }
+        return ((hour * 60L + minute) * 60 + second) * 1000 + millis;
+    }
+
+    private static int parseDigits(String value, int offset, int count)
+    {
+        int result = 0;
+        for (int i = offset; i < offset + count; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static int daysInMonth(int year, int month)
+    {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0) && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Converts local millis to an instant the way {@link LocalDateTime#toDate(java.util.TimeZone)} does,
+     * which the getters have always used. Only local times at an offset transition, or before the
+     * calendar uses the same offsets as the zone rules, go through the calendar.
+     */
+    static long toInstant(long localMillis, DateTimeZone zone)
+    {
+        CalendarZone calendarZone = CALENDAR_ZONES.computeIfAbsent(zone, CalendarZone::new);
+        if (localMillis > calendarZone.minLocalMillis && localMillis < MAX_CALENDAR_TRANSITION_MILLIS - MILLIS_PER_DAY) {
+            ZoneRules rules = calendarZone.rules;
+            if (rules.isFixedOffset()) {
+                return localMillis - rules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000L;
+            }
+            java.time.LocalDateTime localDateTime = toLocalDateTime(localMillis);
+            List<ZoneOffset> offsets = rules.getValidOffsets(localDateTime);
+            if (offsets.size() == 1) {
+                return localMillis - offsets.get(0).getTotalSeconds() * 1000L;
+            }
+        }
+        return new LocalDateTime(localMillis, DateTimeZone.UTC).toDate(zone.toTimeZone()).getTime();
+    }
+
+    static java.time.LocalDateTime toLocalDateTime(long localMillis)
+    {
+        return java.time.LocalDateTime.ofEpochSecond(floorDiv(localMillis, 1000L), (int) floorMod(localMillis, 1000L) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    static ZoneId toZoneId(DateTimeZone zone)
+    {
+        return ZONE_IDS.computeIfAbsent(zone, key -> ZoneId.of(key.getID()));
+    }
+
+    private static final class CalendarZone
+    {
+        private final ZoneRules rules;
+        private final long minLocalMillis;
+
+        private CalendarZone(DateTimeZone zone)
+        {
+            this.rules = zone.toTimeZone().toZoneId().getRules();
+            List<ZoneOffsetTransition> transitions = rules.getTransitions();
+            long firstTransition = transitions.isEmpty() ? Long.MIN_VALUE : transitions.get(0).toEpochSecond() * 1000;
+            this.minLocalMillis = Math.max(firstTransition, MIN_CALENDAR_TRANSITION_MILLIS) + MILLIS_PER_DAY;
+        }
+    }
+
+    final class DecodedRows
+            extends AbstractList<List<Object>>
+    {
+        @Override
+        public List<Object> get(int position)
+        {
+            return new DecodedRow(position);
+        }
+
+        @Override
+        public int size()
+        {
+            return rows.size();
+        }
+    }
+
+    /**
+     * A row of the page. {@link #get(int)} returns the value as received.
+     */
+    final class DecodedRow
+            extends AbstractList<Object>
+    {
+        private final int position;
+        private final List<Object> row;
+
+        private DecodedRow(int position)
+        {
+            this.position = position;
+            this.row = requireNonNull(rows.get(position), "row is null");
+        }
+
+        @Override
+        public Object get(int column)
+        {
+            return row.get(column);
+        }
+
+        @Override
+        public int size()
+        {
+            return row.size();
+        }
+
+        boolean isDecoded(int column)
+        {
+            return decoded[column] != null && decoded[column][position];
+        }
+
+        /**
+         * Returns the primitive encoding of a decoded column, see {@link DecodedPage}.
+         */
+        long getLong(int column)
+        {
+            return values[column][position];
+        }
+
+        DateTimeZone getZone(int column)
+        {
+            return zones[column][position];
+        }
+
+        BigDecimal getBigDecimal(int column)
+        {
+            if (encodings[column] == Encoding.SHORT_DECIMAL) {
+                return BigDecimal.valueOf(values[column][position], scales[column]);
+            }
+            return toBigDecimal(longDecimals[column][position * 2], longDecimals[column][position * 2 + 1], scales[column]);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.jdbc;
+
+import io.prestosql.client.LatencyHistogram;
+
+import static java.util.Objects.requireNonNull;
+
+public final class LatencyStats
+        implements LatencyStatsMBean
+{
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final LatencyHistogram histogram;
+
+    LatencyStats(LatencyHistogram histogram)
+    {
+        this.histogram = requireNonNull(histogram, "histogram is null");
+    }
+
+    @Override
+    public long getCount()
+    {
+        return histogram.getCount();
+    }
+
+    @Override
+    public double getMean()
+    {
+        return histogram.getMeanNanos() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50()
+    {
+        return histogram.getPercentileNanos(50) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP90()
+    {
+        return histogram.getPercentileNanos(90) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99()
+    {
+        return histogram.getPercentileNanos(99) / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMax()
+    {
+        return histogram.getMaxNanos() / NANOS_PER_MILLI;
+    }
+}
@@ -46,13 +46,20 @@ import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Struct;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -71,12 +78,15 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import io.airlift.json.JsonCodec;
 import io.airlift.units.Duration;
 import io.prestosql.client.ClientException;
 import io.prestosql.client.ClientSelectedRole;
 import io.prestosql.client.ClientSession;
+import io.prestosql.client.ClientTimings;
+import io.prestosql.client.DriverMetrics;
 import io.prestosql.client.JsonResponse;
 import io.prestosql.client.ServerInfo;
 import io.prestosql.client.StatementClient;
@@ -108,9 +118,11 @@ public class PrestoConnection
     private final LoginParams loginParams;
     private final AtomicReference<String> connToken = new AtomicReference<>();
     private final AtomicReference<String> refOlkURL = new AtomicReference<>();
+    private final Object loginLock = new Object();
 
     private final int pageSize;
     private final int requestInterval;
+    private final long streamingBufferBytes;
     private AtomicReference<ClientSession> clientSession = new AtomicReference<>();
     
     private final URI jdbcUri;
@@ -125,6 +137,7 @@ public class PrestoConnection
     private final AtomicReference<String> transactionId = new AtomicReference<>();
     private final QueryExecutor queryExecutor;
     private final WarningsManager warningsManager = new WarningsManager();
+    private final List<QueryStatsListener> queryStatsListeners = new CopyOnWriteArrayList<>();
 
     PrestoConnection(PrestoDriverUri uri, QueryExecutor queryExecutor)
             throws SQLException
@@ -145,6 +158,8 @@ public class PrestoConnection
         this.loginParams = new LoginParams(uri.getUser(), uri.getPassword(), uri.getCatalog(), uri.getExpires());
         this.pageSize = uri.getPageSize();
         this.requestInterval = uri.getRequestInterval();
+        this.streamingBufferBytes = uri.getStreamingBufferBytes();
+        DriverMetrics.get().connectionOpened();
     }
 
     @Override
@@ -244,7 +259,9 @@ public class PrestoConnection
             }
         }
         finally {
-            closed.set(true);
+            if (!closed.getAndSet(true)) {
+                DriverMetrics.get().connectionClosed();
+            }
         }
     }
 
@@ -601,6 +618,152 @@ public class PrestoConnection
         sessionProperties.put(name, value);
     }
 
+    /**
+     * Executes independent statements concurrently, with at most {@code maxConcurrency} of them
+     * being submitted at any time. All statements share the DACP token of this connection.
+     * <p>
+     * Each returned future completes with the {@link StatementResult} of the statement at the same
+     * position in {@code sqls}, or exceptionally with the {@link SQLException} it failed with.
+     * Session changes made by update statements are applied to this connection in the order of
+     * {@code sqls}, regardless of the order in which the statements finish, so the resulting
+     * session is the same as if the statements had been run one after another.
+     * <p>
+     * Not supported inside a transaction, as the statements would interleave unpredictably.
+     */
+    public List<CompletableFuture<StatementResult>> executeConcurrently(List<String> sqls, int maxConcurrency)
+            throws SQLException
+    {
+        requireNonNull(sqls, "sqls is null");
+        checkArgument(maxConcurrency > 0, "maxConcurrency must be positive: %s", maxConcurrency);
+        checkOpen();
+        if (!getAutoCommit()) {
+            throw new SQLFeatureNotSupportedException("Concurrent execution is not supported inside a transaction");
+        }
+        if (sqls.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try {
+            ensureLoggedIn();
+        }
+        catch (DacpException e) {
+            throw new SQLException(e.getMessage(), e);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(maxConcurrency, sqls.size()),
+                new ThreadFactoryBuilder().setNameFormat("presto-jdbc-concurrent-%s").setDaemon(true).build());
+        OrderedSessionUpdates sessionUpdates = new OrderedSessionUpdates(sqls.size());
+        List<CompletableFuture<StatementResult>> futures = new ArrayList<>(sqls.size());
+        try {
+            for (int i = 0; i < sqls.size(); i++) {
+                int index = i;
+                String sql = requireNonNull(sqls.get(i), "sql is null");
+                futures.add(CompletableFuture.supplyAsync(() -> executeForResult(sql, index, sessionUpdates), executor));
+            }
+        }
+        finally {
+            // already submitted tasks still run, the threads exit once the queue drains
+            executor.shutdown();
+        }
+        return futures;
+    }
+
+    private StatementResult executeForResult(String sql, int index, OrderedSessionUpdates sessionUpdates)
+    {
+        PrestoStatement statement = new PrestoStatement(this, client -> sessionUpdates.set(index, client));
+        try {
+            if (statement.execute(sql)) {
+                return new StatementResult(sql, statement, Optional.of(statement.getResultSet()), -1, null);
+            }
+            StatementResult result = new StatementResult(sql, statement, Optional.empty(), statement.getLargeUpdateCount(), statement.getUpdateType());
+            statement.close();
+            return result;
+        }
+        catch (SQLException e) {
+            closeAfterFailure(statement, e);
+            throw new CompletionException(e);
+        }
+        catch (RuntimeException e) {
+            closeAfterFailure(statement, e);
+            throw e;
+        }
+        finally {
+            sessionUpdates.complete(index);
+        }
+    }
+
+    private static void closeAfterFailure(PrestoStatement statement, Exception failure)
+    {
+        // also closes a result set the statement may have opened, which cancels its query
+        try {
+            statement.close();
+        }
+        catch (SQLException | RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Applies session updates of concurrently executed statements in submission order:
+     * the update of statement {@code i} is applied only once all statements before it have finished.
+     */
+    private class OrderedSessionUpdates
+    {
+        private final StatementClient[] clients;
+        private final boolean[] completed;
+        private int nextToApply;
+
+        OrderedSessionUpdates(int size)
+        {
+            this.clients = new StatementClient[size];
+            this.completed = new boolean[size];
+        }
+
+        synchronized void set(int index, StatementClient client)
+        {
+            clients[index] = client;
+        }
+
+        synchronized void complete(int index)
+        {
+            completed[index] = true;
+            while (nextToApply < completed.length && completed[nextToApply]) {
+                StatementClient client = clients[nextToApply];
+                clients[nextToApply] = null;
+                nextToApply++;
+                if (client != null) {
+                    updateSession(client);
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers a listener that receives the final statistics, including the client side
+     * timing breakdown, of every query executed on this connection.
+     */
+    public void addQueryStatsListener(QueryStatsListener listener)
+    {
+        queryStatsListeners.add(requireNonNull(listener, "listener is null"));
+    }
+
+    public void removeQueryStatsListener(QueryStatsListener listener)
+    {
+        queryStatsListeners.remove(listener);
+    }
+
+    void queryCompleted(QueryStats stats)
+    {
+        for (QueryStatsListener listener : queryStatsListeners) {
+            try {
+                listener.queryCompleted(stats);
+            }
+            catch (RuntimeException ignored) {
+                // a failing listener must not fail the query
+            }
+        }
+    }
+
     @VisibleForTesting
     Map<String, ClientSelectedRole> getRoles()
     {
@@ -719,6 +882,7 @@ public class PrestoConnection
     }
 
     void updateToken(String token, String olkURL) {
+        DriverMetrics.get().tokenRefreshed();
         this.connToken.set(token);
         this.refOlkURL.set(olkURL);
         ClientSession session = this.clientSession.get();
@@ -741,6 +905,25 @@ public class PrestoConnection
         updateToken(loginResults.getAccessToken(), loginResults.getOlkURL());
     }
 
+    /**
+     * Logs in unless the connection already holds a token. Concurrent statements share
+     * the token, so only one of them performs the login.
+     *
+     * @return true if this call performed the login
+     */
+    private boolean ensureLoggedIn() throws DacpException {
+        if (this.connToken.get() != null) {
+            return false;
+        }
+        synchronized (loginLock) {
+            if (this.connToken.get() != null) {
+                return false;
+            }
+            initConnection();
+            return true;
+        }
+    }
+
     ExecuteResults executeAsync(String sql) throws DacpException {
         ExecuteParams executeParams = new ExecuteParams(sql, this.connToken.get());
         Request request = buildRequest(EXECUTE_PARAMS_CODEC.toJson(executeParams), DacpConsts.EXECUTE_URI);
@@ -766,11 +949,18 @@ public class PrestoConnection
 
     StatementClient startQuery(String sql, Map<String, String> sessionPropertiesOverride) throws DacpException
     {
-        if (null == this.connToken.get()) {
-            initConnection();
+        return startQuery(sql, sessionPropertiesOverride, new ClientTimings());
+    }
+
+    StatementClient startQuery(String sql, Map<String, String> sessionPropertiesOverride, ClientTimings timings) throws DacpException
+    {
+        long start = System.nanoTime();
+        if (ensureLoggedIn()) {
+            start = timings.recordSince(ClientTimings.Phase.LOGIN, start);
         }
 
         ExecuteResults executeResults = executeAsync(sql);
+        timings.recordSince(ClientTimings.Phase.EXECUTE, start);
         QueryParams queryParams = new QueryParams(executeResults.getTaskId(), executeResults.getType(),
                 this.connToken.get(), DacpConsts.DEFAULT_PAGE_NUM, this.pageSize);
         
@@ -822,10 +1012,10 @@ public class PrestoConnection
         
         if (OLK.toString().equalsIgnoreCase(executeResults.getType())) {
             System.out.println("start query olkSQL= " + executeResults.getOlkSQL());
-            return queryExecutor.startQuery(session, executeResults.getOlkSQL());
+            return queryExecutor.startQuery(session, executeResults.getOlkSQL(), timings);
         }
 
-        return queryExecutor.startQuery(session, sql);
+        return queryExecutor.startQuery(session, sql, timings);
     }
 
     void updateSession(StatementClient client)
@@ -850,6 +1040,11 @@ public class PrestoConnection
         }
     }
 
+    long getStreamingBufferBytes()
+    {
+        return streamingBufferBytes;
+    }
+
     WarningsManager getWarningsManager()
     {
         return warningsManager;
@@ -62,6 +62,8 @@ public class PrestoDriver
             DRIVER_VERSION_MINOR = parseInt(firstNonNull(matcher.group(3), "0"));
         }
 
+        PrestoDriverMetrics.register();
+
         try {
             DriverManager.registerDriver(new PrestoDriver());
         }
@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.jdbc;
+
+import io.prestosql.client.DriverMetrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import java.lang.management.ManagementFactory;
+
+import static java.util.Objects.requireNonNull;
+
+public final class PrestoDriverMetrics
+        implements PrestoDriverMetricsMBean
+{
+    public static final String OBJECT_NAME = "io.prestosql.jdbc:type=PrestoDriver,name=Metrics";
+    private static final String LATENCY_OBJECT_NAME = "io.prestosql.jdbc:type=PrestoDriver,name=%sLatency";
+
+    private final DriverMetrics metrics;
+
+    PrestoDriverMetrics(DriverMetrics metrics)
+    {
+        this.metrics = requireNonNull(metrics, "metrics is null");
+    }
+
+    /**
+     * Registers the driver MBeans with the platform MBean server. Drivers sharing the class
+     * loader share the metrics, so registering more than once is a no-op.
+     */
+    static synchronized void register()
+    {
+        DriverMetrics metrics = DriverMetrics.get();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            register(server, new ObjectName(OBJECT_NAME), new PrestoDriverMetrics(metrics));
+            register(server, new ObjectName(String.format(LATENCY_OBJECT_NAME, "HttpRequest")), new LatencyStats(metrics.getHttpRequestLatency()));
+            register(server, new ObjectName(String.format(LATENCY_OBJECT_NAME, "Decode")), new LatencyStats(metrics.getDecodeLatency()));
+        }
+        catch (JMException | SecurityException ignored) {
+            // metrics are best effort, the driver must load without JMX
+        }
+    }
+
+    private static void register(MBeanServer server, ObjectName name, Object mbean)
+            throws JMException
+    {
+        if (!server.isRegistered(name)) {
+            server.registerMBean(mbean, name);
+        }
+    }
+
+    @Override
+    public long getOpenConnections()
+    {
+        return metrics.getOpenConnections();
+    }
+
+    @Override
+    public long getInFlightStatements()
+    {
+        return metrics.getInFlightStatements();
+    }
+
+    @Override
+    public long getStartedStatements()
+    {
+        return metrics.getStartedStatements();
+    }
+
+    @Override
+    public long getHttpRequests()
+    {
+        return metrics.getHttpRequests();
+    }
+
+    @Override
+    public long getHttpRetries()
+    {
+        return metrics.getHttpRetries();
+    }
+
+    @Override
+    public long getServiceUnavailableResponses()
+    {
+        return metrics.getServiceUnavailableResponses();
+    }
+
+    @Override
+    public long getTokenRefreshes()
+    {
+        return metrics.getTokenRefreshes();
+    }
+
+    @Override
+    public long getBytesReceived()
+    {
+        return metrics.getBytesReceived();
+    }
+}
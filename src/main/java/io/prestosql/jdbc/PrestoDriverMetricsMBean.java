@@ -0,0 +1,36 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.jdbc;
+
+/**
+ * JMX view of the driver wide counters, registered as {@value PrestoDriverMetrics#OBJECT_NAME}.
+ */
+public interface PrestoDriverMetricsMBean
+{
+    long getOpenConnections();
+
+    long getInFlightStatements();
+
+    long getStartedStatements();
+
+    long getHttpRequests();
+
+    long getHttpRetries();
+
+    long getServiceUnavailableResponses();
+
+    long getTokenRefreshes();
+
+    long getBytesReceived();
+}
@@ -18,6 +18,7 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.net.HostAndPort;
+import io.airlift.units.DataSize;
 import io.prestosql.client.ClientException;
 import okhttp3.OkHttpClient;
 
@@ -57,6 +58,7 @@ import static io.prestosql.jdbc.ConnectionProperties.PASSWORD;
 import static io.prestosql.jdbc.ConnectionProperties.REQUEST_INTERVAL;
 import static io.prestosql.jdbc.ConnectionProperties.SOCKS_PROXY;
 import static io.prestosql.jdbc.ConnectionProperties.SSL;
+import static io.prestosql.jdbc.ConnectionProperties.STREAMING_BUFFER_SIZE;
 import static io.prestosql.jdbc.ConnectionProperties.SSL_KEY_STORE_PASSWORD;
 import static io.prestosql.jdbc.ConnectionProperties.SSL_KEY_STORE_PATH;
 import static io.prestosql.jdbc.ConnectionProperties.SSL_TRUST_STORE_PASSWORD;
@@ -160,6 +162,15 @@ final class PrestoDriverUri
         return REQUEST_INTERVAL.getValue(properties).orElse(DacpConsts.DEFAULT_REQUEST_INTERVAL);
     }
 
+    /**
+     * Byte budget for prefetched result pages, or zero when pages are fetched one at a time.
+     */
+    public long getStreamingBufferBytes()
+            throws SQLException
+    {
+        return STREAMING_BUFFER_SIZE.getValue(properties).map(DataSize::toBytes).orElse(0L);
+    }
+
     public Optional<String> getApplicationNamePrefix()
             throws SQLException
     {
@@ -16,6 +16,7 @@ package io.prestosql.jdbc;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.prestosql.client.ClientTimings;
 import io.prestosql.client.Column;
 import io.prestosql.client.IntervalDayTime;
 import io.prestosql.client.IntervalYearMonth;
@@ -23,6 +24,9 @@ import io.prestosql.client.QueryError;
 import io.prestosql.client.QueryStatusInfo;
 import io.prestosql.client.StatementClient;
 import io.prestosql.jdbc.ColumnInfo.Nullable;
+import io.prestosql.jdbc.DecodedPage.DecodedRow;
+import io.prestosql.jdbc.DecodedPage.Encoding;
+import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDateTime;
 import org.joda.time.format.DateTimeFormat;
@@ -53,6 +57,12 @@ import java.sql.Statement;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -67,6 +77,8 @@ import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Iterators.concat;
 import static com.google.common.collect.Iterators.transform;
 import static io.prestosql.jdbc.ColumnInfo.setTypeInfo;
+import static io.prestosql.jdbc.DecodedPage.MILLIS_PER_DAY;
+import static io.prestosql.spi.type.Decimals.parseUnscaled;
 import static java.lang.String.format;
 import static java.math.BigDecimal.ROUND_HALF_UP;
 import static java.util.Locale.ENGLISH;
@@ -107,12 +119,47 @@ public class PrestoResultSet
     private final AtomicBoolean wasNull = new AtomicBoolean();
     private final AtomicBoolean closed = new AtomicBoolean();
     private final WarningsManager warningsManager;
+    private final ClientTimings timings;
+    private final Consumer<QueryStats> completionCallback;
+    private final AtomicBoolean completed = new AtomicBoolean();
+    private final boolean isQuery;
+    // null unless the result set prefetches pages in the background
+    private final StreamingPageIterator streamingPages;
+
+    // accumulated locally and flushed to timings once per page to keep next() free of atomic operations
+    private long lastNextNanos;
+    private long pendingConsumeNanos;
+    private long pendingRows;
 
     PrestoResultSet(StatementClient client, long maxRows, Consumer<QueryStats> progressCallback, WarningsManager warningsManager)
             throws SQLException
+    {
+        this(client, maxRows, progressCallback, warningsManager, stats -> {});
+    }
+
+    PrestoResultSet(StatementClient client, long maxRows, Consumer<QueryStats> progressCallback, WarningsManager warningsManager, Consumer<QueryStats> completionCallback)
+            throws SQLException
+    {
+        this(client, maxRows, progressCallback, warningsManager, completionCallback, 0);
+    }
+
+    /**
+     * @param maxBufferedBytes if positive, result pages are prefetched on a background thread while
+     * less than this many bytes are buffered, see {@link StreamingPageIterator}
+     */
+    PrestoResultSet(
+            StatementClient client,
+            long maxRows,
+            Consumer<QueryStats> progressCallback,
+            WarningsManager warningsManager,
+            Consumer<QueryStats> completionCallback,
+            long maxBufferedBytes)
+            throws SQLException
     {
         this.client = requireNonNull(client, "client is null");
         requireNonNull(progressCallback, "progressCallback is null");
+        this.timings = client.getTimings();
+        this.completionCallback = requireNonNull(completionCallback, "completionCallback is null");
 
         this.sessionTimeZone = DateTimeZone.forID(client.getTimeZone().getId());
         this.queryId = client.currentStatusInfo().getId();
@@ -123,7 +170,15 @@ public class PrestoResultSet
         this.resultSetMetaData = new PrestoResultSetMetaData(columnInfoList);
         this.warningsManager = requireNonNull(warningsManager, "warningsManager is null");
 
-        this.results = flatten(new ResultsPageIterator(client, progressCallback, warningsManager), maxRows);
+        this.isQuery = ResultsPageIterator.isQuery(client);
+        if (maxBufferedBytes > 0 && isQuery) {
+            this.streamingPages = new StreamingPageIterator(client, progressCallback, warningsManager, this::flushTimings, maxBufferedBytes, maxRows);
+            this.results = flatten(streamingPages, columnInfoList, maxRows);
+        }
+        else {
+            this.streamingPages = null;
+            this.results = flatten(new ResultsPageIterator(client, progressCallback, warningsManager, this::flushTimings), columnInfoList, maxRows);
+        }
     }
 
     public String getQueryId()
@@ -131,9 +186,17 @@ public class PrestoResultSet
         return queryId;
     }
 
+    /**
+     * Returns false if the statement is an update, determined before any page is prefetched.
+     */
+    boolean isQuery()
+    {
+        return isQuery;
+    }
+
     public QueryStats getStats()
     {
-        return QueryStats.create(queryId, client.getStats());
+        return QueryStats.create(queryId, client.getStats(), timings);
     }
 
     @Override
@@ -141,12 +204,19 @@ public class PrestoResultSet
             throws SQLException
     {
         checkOpen();
+        if (lastNextNanos != 0) {
+            pendingConsumeNanos += System.nanoTime() - lastNextNanos;
+        }
         try {
             if (!results.hasNext()) {
                 row.set(null);
+                lastNextNanos = 0;
+                queryCompleted();
                 return false;
             }
             row.set(results.next());
+            pendingRows++;
+            lastNextNanos = System.nanoTime();
             return true;
         }
         catch (RuntimeException e) {
@@ -162,7 +232,35 @@ public class PrestoResultSet
             throws SQLException
     {
         closed.set(true);
-        client.close();
+        try {
+            queryCompleted();
+        }
+        finally {
+            client.close();
+            if (streamingPages != null) {
+                streamingPages.close();
+            }
+        }
+    }
+
+    private void flushTimings()
+    {
+        if (pendingConsumeNanos > 0) {
+            timings.record(ClientTimings.Phase.CONSUME, pendingConsumeNanos);
+            pendingConsumeNanos = 0;
+        }
+        if (pendingRows > 0) {
+            timings.addRows(pendingRows);
+            pendingRows = 0;
+        }
+    }
+
+    private void queryCompleted()
+    {
+        if (completed.compareAndSet(false, true)) {
+            flushTimings();
+            completionCallback.accept(getStats());
+        }
     }
 
     @Override
@@ -263,6 +361,11 @@ public class PrestoResultSet
             return null;
         }
 
+        DecodedRow decoded = decodedRow(columnIndex);
+        if (decoded != null) {
+            return new Date(DecodedPage.toInstant(decoded.getLong(columnIndex - 1) * MILLIS_PER_DAY, localTimeZone));
+        }
+
         try {
             // Presto: Some timezones like Asia/Shanghai caused to Illegal instant due to time zone offset transition
             // In the following fix, we convert the date to LocalDateTime and then convert it to java.sql.Date
@@ -292,6 +395,15 @@ public class PrestoResultSet
 
         ColumnInfo columnInfo = columnInfo(columnIndex);
         if (columnInfo.getColumnTypeName().equalsIgnoreCase("time")) {
+            DecodedRow decoded = decodedRow(columnIndex);
+            if (decoded != null) {
+                // parsing a time resolves it on 1970-01-01 and rejects local times in an offset gap
+                long localMillis = decoded.getLong(columnIndex - 1);
+                int offset = localTimeZone.getOffsetFromLocal(localMillis);
+                if (localTimeZone.getOffset(localMillis - offset) == offset) {
+                    return new Time(localMillis - offset);
+                }
+            }
             try {
                 return new Time(TIME_FORMATTER.withZone(localTimeZone).parseMillis(String.valueOf(value)));
             }
@@ -328,7 +440,11 @@ public class PrestoResultSet
         }
 
         ColumnInfo columnInfo = columnInfo(columnIndex);
+        DecodedRow decoded = decodedRow(columnIndex);
         if (columnInfo.getColumnTypeName().equalsIgnoreCase("timestamp")) {
+            if (decoded != null) {
+                return new Timestamp(DecodedPage.toInstant(decoded.getLong(columnIndex - 1), localTimeZone));
+            }
             try {
                 // Presto: This fix is for the invalid timestamp due to Daylight Saving time , for example TIMESTAMP '2018-03-25 2:10:10' does
                 //  not exist for timezone: Europe/Berlin and parseMillis method throws an exception , but using parseLocalDateTime
@@ -344,6 +460,9 @@ public class PrestoResultSet
         }
 
         if (columnInfo.getColumnTypeName().equalsIgnoreCase("timestamp with time zone")) {
+            if (decoded != null) {
+                return new Timestamp(decoded.getLong(columnIndex - 1));
+            }
             try {
                 return new Timestamp(TIMESTAMP_WITH_TIME_ZONE_FORMATTER.parseMillis(String.valueOf(value)));
             }
@@ -627,6 +746,20 @@ public class PrestoResultSet
             return null;
         }
 
+        DecodedRow decoded = decodedRow(columnIndex);
+        if (decoded != null) {
+            return decoded.getBigDecimal(columnIndex - 1);
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof String) {
+            long[] unscaled = new long[2];
+            int scale = parseUnscaled((String) value, unscaled, 0);
+            if (scale >= 0) {
+                return DecodedPage.toBigDecimal(unscaled[0], unscaled[1], scale);
+            }
+        }
         return new BigDecimal(String.valueOf(value));
     }
 
@@ -1649,14 +1782,156 @@ public class PrestoResultSet
     public <T> T getObject(int columnIndex, Class<T> type)
             throws SQLException
     {
-        throw new SQLFeatureNotSupportedException("getObject");
+        if (type == null) {
+            throw new SQLException("Type is null");
+        }
+        Object value = column(columnIndex);
+        if (value == null) {
+            return null;
+        }
+
+        Object result;
+        if (type == String.class) {
+            result = getString(columnIndex);
+        }
+        else if (type == BigDecimal.class) {
+            result = getBigDecimal(columnIndex);
+        }
+        else if (type == Date.class) {
+            result = getDate(columnIndex);
+        }
+        else if (type == Time.class) {
+            result = getTime(columnIndex);
+        }
+        else if (type == Timestamp.class) {
+            result = getTimestamp(columnIndex);
+        }
+        else if (type == LocalDate.class) {
+            result = getLocalDate(columnIndex);
+        }
+        else if (type == LocalTime.class) {
+            result = getLocalTime(columnIndex);
+        }
+        else if (type == java.time.LocalDateTime.class) {
+            result = getLocalDateTime(columnIndex);
+        }
+        else if (type == Instant.class) {
+            result = getZonedDateTime(columnIndex).toInstant();
+        }
+        else if (type == OffsetDateTime.class) {
+            result = getZonedDateTime(columnIndex).toOffsetDateTime();
+        }
+        else if (type == ZonedDateTime.class) {
+            result = getZonedDateTime(columnIndex);
+        }
+        else {
+            result = getObject(columnIndex);
+            if (!type.isInstance(result)) {
+                throw new SQLException(format("Cannot convert column %s of type %s to %s", columnIndex, columnInfo(columnIndex).getColumnTypeName(), type.getName()));
+            }
+        }
+        return type.cast(result);
     }
 
     @Override
     public <T> T getObject(String columnLabel, Class<T> type)
             throws SQLException
     {
-        throw new SQLFeatureNotSupportedException("getObject");
+        return getObject(columnIndex(columnLabel), type);
+    }
+
+    private LocalDate getLocalDate(int columnIndex)
+            throws SQLException
+    {
+        checkColumnType(columnIndex, "date");
+        DecodedRow decoded = decodedRow(columnIndex);
+        if (decoded != null) {
+            return LocalDate.ofEpochDay(decoded.getLong(columnIndex - 1));
+        }
+        Object value = column(columnIndex);
+        try {
+            org.joda.time.LocalDate date = DATE_FORMATTER.parseLocalDate(String.valueOf(value));
+            return LocalDate.of(date.getYear(), date.getMonthOfYear(), date.getDayOfMonth());
+        }
+        catch (IllegalArgumentException | DateTimeException e) {
+            throw new SQLException("Invalid date from server: " + value, e);
+        }
+    }
+
+    private LocalTime getLocalTime(int columnIndex)
+            throws SQLException
+    {
+        checkColumnType(columnIndex, "time");
+        DecodedRow decoded = decodedRow(columnIndex);
+        if (decoded != null) {
+            return LocalTime.ofNanoOfDay(decoded.getLong(columnIndex - 1) * 1_000_000);
+        }
+        Object value = column(columnIndex);
+        try {
+            return LocalTime.ofNanoOfDay(TIME_FORMATTER.parseLocalTime(String.valueOf(value)).getMillisOfDay() * 1_000_000L);
+        }
+        catch (IllegalArgumentException | DateTimeException e) {
+            throw new SQLException("Invalid time from server: " + value, e);
+        }
+    }
+
+    private java.time.LocalDateTime getLocalDateTime(int columnIndex)
+            throws SQLException
+    {
+        checkColumnType(columnIndex, "timestamp");
+        DecodedRow decoded = decodedRow(columnIndex);
+        if (decoded != null) {
+            return DecodedPage.toLocalDateTime(decoded.getLong(columnIndex - 1));
+        }
+        Object value = column(columnIndex);
+        try {
+            LocalDateTime timestamp = TIMESTAMP_FORMATTER.parseLocalDateTime(String.valueOf(value));
+            return java.time.LocalDateTime.of(
+                    timestamp.getYear(),
+                    timestamp.getMonthOfYear(),
+                    timestamp.getDayOfMonth(),
+                    timestamp.getHourOfDay(),
+                    timestamp.getMinuteOfHour(),
+                    timestamp.getSecondOfMinute(),
+                    timestamp.getMillisOfSecond() * 1_000_000);
+        }
+        catch (IllegalArgumentException | DateTimeException e) {
+            throw new SQLException("Invalid timestamp from server: " + value, e);
+        }
+    }
+
+    /**
+     * A {@code timestamp} is resolved in the session time zone, like {@link #getTimestamp(int)}.
+     */
+    private ZonedDateTime getZonedDateTime(int columnIndex)
+            throws SQLException
+    {
+        ColumnInfo columnInfo = columnInfo(columnIndex);
+        if (columnInfo.getColumnTypeName().equalsIgnoreCase("timestamp")) {
+            return Instant.ofEpochMilli(getTimestamp(columnIndex).getTime()).atZone(DecodedPage.toZoneId(sessionTimeZone));
+        }
+        checkColumnType(columnIndex, "timestamp with time zone");
+        DecodedRow decoded = decodedRow(columnIndex);
+        if (decoded != null) {
+            return Instant.ofEpochMilli(decoded.getLong(columnIndex - 1)).atZone(DecodedPage.toZoneId(decoded.getZone(columnIndex - 1)));
+        }
+        Object value = column(columnIndex);
+        try {
+            DateTime timestamp = TIMESTAMP_WITH_TIME_ZONE_FORMATTER.parseDateTime(String.valueOf(value));
+            return Instant.ofEpochMilli(timestamp.getMillis()).atZone(DecodedPage.toZoneId(timestamp.getZone()));
+        }
+        catch (IllegalArgumentException | DateTimeException e) {
+            throw new SQLException("Invalid timestamp from server: " + value, e);
+        }
+    }
+
+    private void checkColumnType(int columnIndex, String typeName)
+            throws SQLException
+    {
+        ColumnInfo columnInfo = columnInfo(columnIndex);
+        if (!columnInfo.getColumnTypeName().equalsIgnoreCase(typeName)) {
+            throw new SQLException(format("Expected column to be a %s type but is %s", typeName, columnInfo.getColumnTypeName()));
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -1711,6 +1986,18 @@ public class PrestoResultSet
         return value;
     }
 
+    /**
+     * Returns the current row if the column value was decoded with its page, must be called after {@link #column(int)}.
+     */
+    private DecodedRow decodedRow(int index)
+    {
+        List<Object> current = row.get();
+        if (current instanceof DecodedRow && ((DecodedRow) current).isDecoded(index - 1)) {
+            return (DecodedRow) current;
+        }
+        return null;
+    }
+
     private ColumnInfo columnInfo(int index)
             throws SQLException
     {
@@ -1781,9 +2068,11 @@ public class PrestoResultSet
         throw resultsException(results);
     }
 
-    private static <T> Iterator<T> flatten(Iterator<Iterable<T>> iterator, long maxRows)
+    private static Iterator<List<Object>> flatten(Iterator<Iterable<List<Object>>> iterator, List<ColumnInfo> columns, long maxRows)
     {
-        Iterator<T> rowsIterator = concat(transform(iterator, Iterable::iterator));
+        Encoding[] encodings = DecodedPage.getEncodings(columns);
+        int[] scales = DecodedPage.getScales(columns);
+        Iterator<List<Object>> rowsIterator = concat(transform(iterator, page -> DecodedPage.decode(page, encodings, scales).iterator()));
         return (maxRows > 0) ? new LengthLimitedIterator<>(rowsIterator, maxRows) : rowsIterator;
     }
 
@@ -1794,16 +2083,18 @@ public class PrestoResultSet
         private final Consumer<QueryStats> progressCallback;
         private final WarningsManager warningsManager;
         private final boolean isQuery;
+        private final Runnable pageCompleted;
 
-        private ResultsPageIterator(StatementClient client, Consumer<QueryStats> progressCallback, WarningsManager warningsManager)
+        private ResultsPageIterator(StatementClient client, Consumer<QueryStats> progressCallback, WarningsManager warningsManager, Runnable pageCompleted)
         {
             this.client = requireNonNull(client, "client is null");
             this.progressCallback = requireNonNull(progressCallback, "progressCallback is null");
             this.warningsManager = requireNonNull(warningsManager, "warningsManager is null");
+            this.pageCompleted = requireNonNull(pageCompleted, "pageCompleted is null");
             this.isQuery = isQuery(client);
         }
 
-        private static boolean isQuery(StatementClient client)
+        static boolean isQuery(StatementClient client)
         {
             String updateType;
             if (client.isRunning()) {
@@ -1818,6 +2109,7 @@ public class PrestoResultSet
         @Override
         protected Iterable<List<Object>> computeNext()
         {
+            pageCompleted.run();
             if (isQuery) {
                 // Clear the warnings if this is a query, per ResultSet javadoc
                 warningsManager.clearWarnings();
@@ -1826,7 +2118,7 @@ public class PrestoResultSet
                 checkInterruption(null);
 
                 QueryStatusInfo results = client.currentStatusInfo();
-                progressCallback.accept(QueryStats.create(results.getId(), results.getStats()));
+                progressCallback.accept(QueryStats.create(results.getId(), results.getStats(), client.getTimings()));
                 warningsManager.addWarnings(results.getWarnings());
                 Iterable<List<Object>> data = client.currentData().getData();
 
@@ -1845,7 +2137,7 @@ public class PrestoResultSet
 
             verify(client.isFinished());
             QueryStatusInfo results = client.finalStatusInfo();
-            progressCallback.accept(QueryStats.create(results.getId(), results.getStats()));
+            progressCallback.accept(QueryStats.create(results.getId(), results.getStats(), client.getTimings()));
             warningsManager.addWarnings(results.getWarnings());
             if (results.getError() != null) {
                 throw new RuntimeException(resultsException(results));
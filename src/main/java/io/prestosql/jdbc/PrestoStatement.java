@@ -54,10 +54,21 @@ public class PrestoStatement
     private final AtomicReference<String> currentUpdateType = new AtomicReference<>();
     private final AtomicReference<Optional<Consumer<QueryStats>>> progressCallback = new AtomicReference<>(Optional.empty());
     private final Consumer<QueryStats> progressConsumer = value -> progressCallback.get().ifPresent(callback -> callback.accept(value));
+    private final Consumer<StatementClient> sessionUpdater;
 
     PrestoStatement(PrestoConnection connection)
+    {
+        this(connection, connection::updateSession);
+    }
+
+    /**
+     * @param sessionUpdater receives the client of every finished update statement, so that
+     * session changes made by the statement can be applied to the connection
+     */
+    PrestoStatement(PrestoConnection connection, Consumer<StatementClient> sessionUpdater)
     {
         this.connection = new AtomicReference<>(requireNonNull(connection, "connection is null"));
+        this.sessionUpdater = requireNonNull(sessionUpdater, "sessionUpdater is null");
     }
 
     public void setProgressMonitor(Consumer<QueryStats> progressMonitor)
@@ -247,10 +258,16 @@ public class PrestoStatement
             executingClient.set(client);
             WarningsManager warningsManager = new WarningsManager();
             currentWarningsManager.set(Optional.of(warningsManager));
-            resultSet = new PrestoResultSet(client, maxRows.get(), progressConsumer, warningsManager);
+            resultSet = new PrestoResultSet(
+                    client,
+                    maxRows.get(),
+                    progressConsumer,
+                    warningsManager,
+                    connection()::queryCompleted,
+                    connection().getStreamingBufferBytes());
 
             // check if this is a query
-            if (client.currentStatusInfo().getUpdateType() == null) {
+            if (resultSet.isQuery()) {
                 currentResult.set(resultSet);
                 return true;
             }
@@ -260,7 +277,7 @@ public class PrestoStatement
                 // ignore rows
             }
 
-            connection().updateSession(client);
+            sessionUpdater.accept(client);
 
             Long updateCount = client.finalStatusInfo().getUpdateCount();
             currentUpdateCount.set((updateCount != null) ? updateCount : 0);
@@ -16,6 +16,7 @@ package io.prestosql.jdbc;
 import io.airlift.json.JsonCodec;
 import io.prestosql.client.ClientException;
 import io.prestosql.client.ClientSession;
+import io.prestosql.client.ClientTimings;
 import io.prestosql.client.JsonResponse;
 import io.prestosql.client.ServerInfo;
 import io.prestosql.client.StatementClient;
@@ -46,6 +47,11 @@ class QueryExecutor
         return newStatementClient(httpClient, session, query);
     }
 
+    public StatementClient startQuery(ClientSession session, String query, ClientTimings timings)
+    {
+        return newStatementClient(httpClient, session, query, timings);
+    }
+
     public ServerInfo getServerInfo(URI server)
     {
         HttpUrl url = HttpUrl.get(server);
@@ -13,6 +13,7 @@
  */
 package io.prestosql.jdbc;
 
+import io.prestosql.client.ClientTimings;
 import io.prestosql.client.StatementStats;
 
 import java.util.Optional;
@@ -40,6 +41,7 @@ public final class QueryStats
     private final long processedBytes;
     private final long peakMemoryBytes;
     private final Optional<StageStats> rootStage;
+    private final Optional<ClientStats> clientStats;
 
     public QueryStats(
             String queryId,
@@ -59,6 +61,47 @@ public final class QueryStats
             long processedBytes,
             long peakMemoryBytes,
             Optional<StageStats> rootStage)
+    {
+        this(
+                queryId,
+                state,
+                queued,
+                scheduled,
+                nodes,
+                totalSplits,
+                queuedSplits,
+                runningSplits,
+                completedSplits,
+                cpuTimeMillis,
+                wallTimeMillis,
+                queuedTimeMillis,
+                elapsedTimeMillis,
+                processedRows,
+                processedBytes,
+                peakMemoryBytes,
+                rootStage,
+                Optional.empty());
+    }
+
+    public QueryStats(
+            String queryId,
+            String state,
+            boolean queued,
+            boolean scheduled,
+            int nodes,
+            int totalSplits,
+            int queuedSplits,
+            int runningSplits,
+            int completedSplits,
+            long cpuTimeMillis,
+            long wallTimeMillis,
+            long queuedTimeMillis,
+            long elapsedTimeMillis,
+            long processedRows,
+            long processedBytes,
+            long peakMemoryBytes,
+            Optional<StageStats> rootStage,
+            Optional<ClientStats> clientStats)
     {
         this.queryId = requireNonNull(queryId, "queryId is null");
         this.state = requireNonNull(state, "state is null");
@@ -77,6 +120,30 @@ public final class QueryStats
         this.processedBytes = processedBytes;
         this.peakMemoryBytes = peakMemoryBytes;
         this.rootStage = requireNonNull(rootStage, "rootStage is null");
+        this.clientStats = requireNonNull(clientStats, "clientStats is null");
+    }
+
+    static QueryStats create(String queryId, StatementStats stats, ClientTimings timings)
+    {
+        return new QueryStats(
+                queryId,
+                stats.getState(),
+                stats.isQueued(),
+                stats.isScheduled(),
+                stats.getNodes(),
+                stats.getTotalSplits(),
+                stats.getQueuedSplits(),
+                stats.getRunningSplits(),
+                stats.getCompletedSplits(),
+                stats.getCpuTimeMillis(),
+                stats.getWallTimeMillis(),
+                stats.getQueuedTimeMillis(),
+                stats.getElapsedTimeMillis(),
+                stats.getProcessedRows(),
+                stats.getProcessedBytes(),
+                stats.getPeakMemoryBytes(),
+                Optional.ofNullable(stats.getRootStage()).map(StageStats::create),
+                Optional.of(ClientStats.create(timings)));
     }
 
     static QueryStats create(String queryId, StatementStats stats)
@@ -186,6 +253,11 @@ public final class QueryStats
         return rootStage;
     }
 
+    public Optional<ClientStats> getClientStats()
+    {
+        return clientStats;
+    }
+
     public OptionalDouble getProgressPercentage()
     {
         if (!scheduled || totalSplits == 0) {
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Outcome of one statement submitted through {@link PrestoConnection#executeConcurrently}.
+ * A query holds an open result set, which the caller must close; any other statement holds its update count.
+ */
+public final class StatementResult
+{
+    private final String sql;
+    private final Statement statement;
+    private final Optional<ResultSet> resultSet;
+    private final long updateCount;
+    private final String updateType;
+
+    StatementResult(String sql, Statement statement, Optional<ResultSet> resultSet, long updateCount, String updateType)
+    {
+        this.sql = requireNonNull(sql, "sql is null");
+        this.statement = requireNonNull(statement, "statement is null");
+        this.resultSet = requireNonNull(resultSet, "resultSet is null");
+        this.updateCount = updateCount;
+        this.updateType = updateType;
+    }
+
+    public String getSql()
+    {
+        return sql;
+    }
+
+    public Statement getStatement()
+    {
+        return statement;
+    }
+
+    public boolean isQuery()
+    {
+        return resultSet.isPresent();
+    }
+
+    public Optional<ResultSet> getResultSet()
+    {
+        return resultSet;
+    }
+
+    /**
+     * Returns the update count, or -1 if the statement was a query.
+     */
+    public long getUpdateCount()
+    {
+        return updateCount;
+    }
+
+    public String getUpdateType()
+    {
+        return updateType;
+    }
+}
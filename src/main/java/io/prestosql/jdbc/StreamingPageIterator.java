@@ -0,0 +1,246 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.jdbc;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.prestosql.client.ClientTimings;
+import io.prestosql.client.QueryStatusInfo;
+import io.prestosql.client.StatementClient;
+import io.prestosql.client.Warning;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.jdbc.PrestoResultSet.resultsException;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Fetches result pages on a background thread, ahead of the application, but only while the
+ * pages buffered on the client stay below a byte budget. Once the budget is reached the server
+ * is not polled until the application has consumed enough rows, which lets the server side
+ * output buffer fill up and throttle the query instead of growing the client heap.
+ * At least one page is always buffered, even if it is larger than the budget. Once the pages
+ * hold the maximum number of rows the application reads, the client is closed.
+ * Only used for queries, update statements are drained synchronously.
+ */
+class StreamingPageIterator
+        extends AbstractIterator<Iterable<List<Object>>>
+{
+    private static final ExecutorService PREFETCH_EXECUTOR = Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder().setNameFormat("presto-jdbc-prefetch-%s").setDaemon(true).build());
+
+    private final StatementClient client;
+    private final Consumer<QueryStats> progressCallback;
+    private final WarningsManager warningsManager;
+    private final Runnable pageCompleted;
+    private final long maxBufferedBytes;
+    private final long maxRows;
+
+    @GuardedBy("this")
+    private final Queue<BufferedPage> pages = new ArrayDeque<>();
+    @GuardedBy("this")
+    private long bufferedBytes;
+    @GuardedBy("this")
+    private long bufferedRows;
+    @GuardedBy("this")
+    private boolean closed;
+
+    StreamingPageIterator(
+            StatementClient client,
+            Consumer<QueryStats> progressCallback,
+            WarningsManager warningsManager,
+            Runnable pageCompleted,
+            long maxBufferedBytes,
+            long maxRows)
+    {
+        checkArgument(maxBufferedBytes > 0, "maxBufferedBytes must be positive");
+        this.client = requireNonNull(client, "client is null");
+        this.progressCallback = requireNonNull(progressCallback, "progressCallback is null");
+        this.warningsManager = requireNonNull(warningsManager, "warningsManager is null");
+        this.pageCompleted = requireNonNull(pageCompleted, "pageCompleted is null");
+        this.maxBufferedBytes = maxBufferedBytes;
+        this.maxRows = maxRows;
+        PREFETCH_EXECUTOR.execute(this::prefetch);
+    }
+
+    public synchronized long getBufferedBytes()
+    {
+        return bufferedBytes;
+    }
+
+    public synchronized long getBufferedRows()
+    {
+        return bufferedRows;
+    }
+
+    /**
+     * Stops prefetching and releases the buffered pages. The caller is responsible for closing the client.
+     */
+    public synchronized void close()
+    {
+        closed = true;
+        pages.clear();
+        bufferedBytes = 0;
+        bufferedRows = 0;
+        notifyAll();
+    }
+
+    @Override
+    protected Iterable<List<Object>> computeNext()
+    {
+        pageCompleted.run();
+        BufferedPage page = take();
+        // Clear the warnings, per ResultSet javadoc
+        warningsManager.clearWarnings();
+        if (page.stats != null) {
+            progressCallback.accept(page.stats);
+        }
+        warningsManager.addWarnings(page.warnings);
+        if (page.failure != null) {
+            throw page.failure;
+        }
+        if (page.data == null) {
+            return endOfData();
+        }
+        return page.data;
+    }
+
+    private synchronized BufferedPage take()
+    {
+        while (pages.isEmpty()) {
+            if (closed) {
+                throw new RuntimeException(new SQLException("ResultSet is closed"));
+            }
+            try {
+                wait();
+            }
+            catch (InterruptedException e) {
+                client.close();
+                close();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(new SQLException("ResultSet thread was interrupted", e));
+            }
+        }
+        BufferedPage page = pages.remove();
+        bufferedBytes -= page.bytes;
+        bufferedRows -= page.rows;
+        notifyAll();
+        return page;
+    }
+
+    private void prefetch()
+    {
+        try {
+            // the current response was received before the iterator was created
+            long responseBytes = client.getTimings().getLastBytes();
+            long rows = 0;
+            while (client.isRunning()) {
+                QueryStatusInfo results = client.currentStatusInfo();
+                Iterable<List<Object>> data = client.currentData().getData();
+                if (data != null) {
+                    QueryStats stats = QueryStats.create(results.getId(), results.getStats(), client.getTimings());
+                    int pageRows = Iterables.size(data);
+                    if (!offer(new BufferedPage(data, responseBytes, pageRows, stats, results.getWarnings(), null))) {
+                        return;
+                    }
+                    rows += pageRows;
+                    if (maxRows > 0 && rows >= maxRows) {
+                        // the application reads no further, release the query and its connection now
+                        client.close();
+                        offer(new BufferedPage(null, 0, 0, null, ImmutableList.of(), null));
+                        return;
+                    }
+                    if (!awaitBufferSpace()) {
+                        return;
+                    }
+                }
+
+                ClientTimings timings = client.getTimings();
+                long before = timings.getBytes();
+                client.advance();
+                responseBytes = timings.getBytes() - before;
+            }
+
+            QueryStatusInfo results = client.finalStatusInfo();
+            QueryStats stats = QueryStats.create(results.getId(), results.getStats(), client.getTimings());
+            RuntimeException failure = (results.getError() == null) ? null : new RuntimeException(resultsException(results));
+            offer(new BufferedPage(null, 0, 0, stats, results.getWarnings(), failure));
+        }
+        catch (RuntimeException e) {
+            offer(new BufferedPage(null, 0, 0, null, ImmutableList.of(), e));
+        }
+    }
+
+    private synchronized boolean offer(BufferedPage page)
+    {
+        if (closed) {
+            return false;
+        }
+        pages.add(page);
+        bufferedBytes += page.bytes;
+        bufferedRows += page.rows;
+        notifyAll();
+        return true;
+    }
+
+    /**
+     * Blocks the prefetch thread while the buffer is over budget.
+     *
+     * @return false if the iterator was closed while waiting
+     */
+    private synchronized boolean awaitBufferSpace()
+    {
+        while (!closed && bufferedBytes >= maxBufferedBytes) {
+            try {
+                wait();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return !closed;
+    }
+
+    private static class BufferedPage
+    {
+        private final Iterable<List<Object>> data;
+        private final long bytes;
+        private final long rows;
+        private final QueryStats stats;
+        private final List<Warning> warnings;
+        private final RuntimeException failure;
+
+        private BufferedPage(Iterable<List<Object>> data, long bytes, long rows, QueryStats stats, List<Warning> warnings, RuntimeException failure)
+        {
+            this.data = data;
+            this.bytes = bytes;
+            this.rows = rows;
+            this.stats = stats;
+            this.warnings = requireNonNull(warnings, "warnings is null");
+            this.failure = failure;
+        }
+    }
+}
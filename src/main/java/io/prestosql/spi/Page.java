@@ -16,6 +16,7 @@ package io.prestosql.spi;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.DictionaryBlock;
 import io.prestosql.spi.block.DictionaryId;
+import io.prestosql.spi.block.OffHeapMemory;
 import org.openjdk.jol.info.ClassLayout;
 
 import java.util.ArrayList;
@@ -119,6 +120,23 @@ public class Page
         return blocks[channel];
     }
 
+    /**
+     * Copies the page with the data of its variable width blocks in direct memory, for pages that
+     * are buffered for a long time, see {@link OffHeapMemory#copyOf(Block)}. The memory is freed once
+     * the page and its blocks become unreachable.
+     */
+    public Page copyToOffHeap()
+    {
+        OffHeapMemory memory = new OffHeapMemory();
+        Block[] offHeapBlocks = new Block[blocks.length];
+        for (int i = 0; i < blocks.length; i++) {
+            offHeapBlocks[i] = memory.copyOf(blocks[i]);
+        }
+        Properties metadata = new Properties();
+        metadata.putAll(pageMetadata);
+        return new Page(positionCount, metadata, offHeapBlocks);
+    }
+
     /**
      * Gets the values at the specified position as a single element page.  The method creates independent
      * copy of the data.
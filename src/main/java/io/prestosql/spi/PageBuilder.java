@@ -34,11 +34,18 @@ public class PageBuilder
     //
     // This could be any other small number.
     private static final int DEFAULT_INITIAL_EXPECTED_ENTRIES = 8;
+    // the largest recent page shrinks by this factor per page, so a single large page is forgotten gradually
+    private static final double OBSERVED_POSITIONS_DECAY = 0.75;
+    private static final double EXPECTED_POSITIONS_SKEW = 1.25;
+    private static final int MAX_EXPECTED_ENTRIES = Integer.MAX_VALUE - 8;
 
     private final BlockBuilder[] blockBuilders;
     private final List<Type> types;
+    private final boolean recycleBuilders;
     private PageBuilderStatus pageBuilderStatus;
     private int declaredPositions;
+    private int observedPositions;
+    private boolean pageOwnsArrays;
 
     /**
      * Create a PageBuilder with given types.
@@ -57,17 +64,30 @@ public class PageBuilder
 
     public PageBuilder(int initialExpectedEntries, List<? extends Type> types)
     {
-        this(initialExpectedEntries, DEFAULT_MAX_PAGE_SIZE_IN_BYTES, types, Optional.empty());
+        this(initialExpectedEntries, DEFAULT_MAX_PAGE_SIZE_IN_BYTES, types, Optional.empty(), false);
     }
 
     public static PageBuilder withMaxPageSize(int maxPageBytes, List<? extends Type> types)
     {
-        return new PageBuilder(DEFAULT_INITIAL_EXPECTED_ENTRIES, maxPageBytes, types, Optional.empty());
+        return new PageBuilder(DEFAULT_INITIAL_EXPECTED_ENTRIES, maxPageBytes, types, Optional.empty(), false);
     }
 
-    private PageBuilder(int initialExpectedEntries, int maxPageBytes, List<? extends Type> types, Optional<BlockBuilder[]> templateBlockBuilders)
+    /**
+     * Create a PageBuilder that reuses the arrays of its block builders for every page.
+     * <p>
+     * A page returned by {@link #build()} shares these arrays and is only valid until the next
+     * {@link #reset()}, which overwrites them. Use {@link #buildRetained()} for a page that is kept
+     * longer, the builders then allocate new arrays on the next reset.
+     */
+    public static PageBuilder withRecycling(int maxPageBytes, List<? extends Type> types)
+    {
+        return new PageBuilder(DEFAULT_INITIAL_EXPECTED_ENTRIES, maxPageBytes, types, Optional.empty(), true);
+    }
+
+    private PageBuilder(int initialExpectedEntries, int maxPageBytes, List<? extends Type> types, Optional<BlockBuilder[]> templateBlockBuilders, boolean recycleBuilders)
     {
         this.types = unmodifiableList(new ArrayList<>(requireNonNull(types, "types is null")));
+        this.recycleBuilders = recycleBuilders;
 
         pageBuilderStatus = new PageBuilderStatus(maxPageBytes);
         blockBuilders = new BlockBuilder[types.size()];
@@ -76,7 +96,7 @@ public class PageBuilder
             BlockBuilder[] templates = templateBlockBuilders.get();
             checkArgument(templates.length == types.size(), "Size of templates and types should match");
             for (int i = 0; i < blockBuilders.length; i++) {
-                blockBuilders[i] = templates[i].newBlockBuilderLike(pageBuilderStatus.createBlockBuilderStatus());
+                blockBuilders[i] = templates[i].newBlockBuilderLike(pageBuilderStatus.createBlockBuilderStatus(), initialExpectedEntries);
             }
         }
         else {
@@ -93,16 +113,42 @@ public class PageBuilder
         }
         pageBuilderStatus = new PageBuilderStatus(pageBuilderStatus.getMaxPageSizeInBytes());
 
+        observedPositions = Math.max(declaredPositions, (int) (observedPositions * OBSERVED_POSITIONS_DECAY));
         declaredPositions = 0;
 
+        boolean recycle = recycleBuilders && !pageOwnsArrays;
+        pageOwnsArrays = false;
+        int expectedEntries = getExpectedEntries();
         for (int i = 0; i < types.size(); i++) {
-            blockBuilders[i] = blockBuilders[i].newBlockBuilderLike(pageBuilderStatus.createBlockBuilderStatus());
+            if (recycle) {
+                blockBuilders[i] = blockBuilders[i].recycle(pageBuilderStatus.createBlockBuilderStatus());
+            }
+            else {
+                blockBuilders[i] = blockBuilders[i].newBlockBuilderLike(pageBuilderStatus.createBlockBuilderStatus(), expectedEntries);
+            }
         }
     }
 
     public PageBuilder newPageBuilderLike()
     {
-        return new PageBuilder(declaredPositions, pageBuilderStatus.getMaxPageSizeInBytes(), types, Optional.of(blockBuilders));
+        PageBuilder pageBuilder = new PageBuilder(
+                Math.max(declaredPositions, getExpectedEntries()),
+                pageBuilderStatus.getMaxPageSizeInBytes(),
+                types,
+                Optional.of(blockBuilders),
+                recycleBuilders);
+        pageBuilder.observedPositions = Math.max(declaredPositions, observedPositions);
+        return pageBuilder;
+    }
+
+    /**
+     * Number of entries new block builders are sized for: the largest recent page, with some room
+     * to grow, so that steady page sizes do not grow the arrays page after page.
+     */
+    private int getExpectedEntries()
+    {
+        long expectedEntries = (long) Math.ceil(observedPositions * EXPECTED_POSITIONS_SKEW);
+        return (int) Math.max(DEFAULT_INITIAL_EXPECTED_ENTRIES, Math.min(expectedEntries, MAX_EXPECTED_ENTRIES));
     }
 
     public BlockBuilder getBlockBuilder(int channel)
@@ -156,6 +202,10 @@ public class PageBuilder
         return retainedSizeInBytes;
     }
 
+    /**
+     * Builds a page from the block builders. When recycling, the page is only valid until the next
+     * {@link #reset()}, see {@link #withRecycling(int, List)}.
+     */
     public Page build()
     {
         if (blockBuilders.length == 0) {
@@ -173,6 +223,17 @@ public class PageBuilder
         return new Page(blocks);
     }
 
+    /**
+     * Same as {@link #build()}, but the page keeps the arrays of the block builders, so it stays
+     * valid after {@link #reset()} also when recycling.
+     */
+    public Page buildRetained()
+    {
+        Page page = build();
+        pageOwnsArrays = true;
+        return page;
+    }
+
     private static void checkArgument(boolean expression, String errorMessage)
     {
         if (!expression) {
@@ -18,10 +18,17 @@ import io.prestosql.spi.util.BloomFilter;
 import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 
 import java.util.function.BiConsumer;
+import java.util.function.DoublePredicate;
 import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.airlift.slice.Slices.wrappedLongArray;
 import static io.prestosql.spi.block.BlockUtil.checkArrayRange;
 import static io.prestosql.spi.block.DictionaryId.randomDictionaryId;
+import static java.lang.Double.longBitsToDouble;
+import static java.lang.Float.intBitsToFloat;
 
 public interface Block<T>
 {
@@ -337,7 +344,53 @@ public interface Block<T>
 
     default int filter(int[] positions, int positionCount, int[] matchedPositions, Function<Object, Boolean> test)
     {
-        System.arraycopy(positions, positionCount, matchedPositions, positionCount, positionCount);
+        System.arraycopy(positions, 0, matchedPositions, 0, positionCount);
         return positionCount;
     }
+
+    /**
+     * Copies the {@code positions} whose value matches {@code test} to {@code matchedPositions}
+     * in order, and returns their count. Unlike {@link #filter(int[], int, int[], Function)}
+     * values are not boxed, and null values never match.
+     * Blocks of integer values narrower than a long widen them.
+     * By default the boxed values of {@link #filter(int[], int, int[], Function)} are tested.
+     */
+    default int filterLong(int[] positions, int positionCount, int[] matchedPositions, LongPredicate test)
+    {
+        return filter(positions, positionCount, matchedPositions, value -> value != null && test.test(((Number) value).longValue()));
+    }
+
+    /**
+     * Same as {@link #filterLong(int[], int, int[], LongPredicate)} for blocks of int, short or byte values.
+     */
+    default int filterInt(int[] positions, int positionCount, int[] matchedPositions, IntPredicate test)
+    {
+        return filter(positions, positionCount, matchedPositions, value -> value != null && test.test(((Number) value).intValue()));
+    }
+
+    /**
+     * Same as {@link #filterLong(int[], int, int[], LongPredicate)} for {@code double} values stored as
+     * long bits, and {@code real} values stored as int bits.
+     */
+    default int filterDouble(int[] positions, int positionCount, int[] matchedPositions, DoublePredicate test)
+    {
+        return filter(positions, positionCount, matchedPositions, value -> value != null && test.test(value instanceof Long
+                ? longBitsToDouble((Long) value)
+                : intBitsToFloat(((Number) value).intValue())));
+    }
+
+    /**
+     * Same as {@link #filterLong(int[], int, int[], LongPredicate)} for variable width and 128 bit values,
+     * which are passed as a range of the backing slice.
+     */
+    default int filterSlice(int[] positions, int positionCount, int[] matchedPositions, SlicePredicate test)
+    {
+        return filter(positions, positionCount, matchedPositions, value -> {
+            if (value == null) {
+                return false;
+            }
+            Slice slice = value instanceof long[] ? wrappedLongArray((long[]) value) : wrappedBuffer((byte[]) value);
+            return test.test(slice, 0, slice.length());
+        });
+    }
 }
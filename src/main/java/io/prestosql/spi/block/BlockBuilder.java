@@ -112,4 +112,23 @@ public interface BlockBuilder<T>
      * Creates a new block builder of the same type based on the current usage statistics of this block builder.
      */
     BlockBuilder newBlockBuilderLike(BlockBuilderStatus blockBuilderStatus);
+
+    /**
+     * Same as {@link #newBlockBuilderLike(BlockBuilderStatus)}, but sized for the given number of entries
+     * instead of the entries of this builder.
+     */
+    default BlockBuilder newBlockBuilderLike(BlockBuilderStatus blockBuilderStatus, int expectedEntries)
+    {
+        return newBlockBuilderLike(blockBuilderStatus);
+    }
+
+    /**
+     * Returns an empty builder that reuses the arrays of this builder, which is this builder itself
+     * where supported. Blocks built by this builder before must not be used afterwards, as their
+     * values are overwritten.
+     */
+    default BlockBuilder recycle(BlockBuilderStatus blockBuilderStatus)
+    {
+        return newBlockBuilderLike(blockBuilderStatus);
+    }
 }
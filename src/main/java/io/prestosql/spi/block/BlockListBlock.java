@@ -14,11 +14,17 @@
 package io.prestosql.spi.block;
 
 import io.airlift.slice.Slice;
+import io.prestosql.spi.util.BloomFilter;
 import org.openjdk.jol.info.ClassLayout;
 
 import java.util.function.BiConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 
 import static io.airlift.slice.SizeOf.sizeOf;
+import static io.prestosql.spi.block.BlockUtil.checkArrayRange;
 import static java.util.Objects.requireNonNull;
 
 public class BlockListBlock<T>
@@ -30,7 +36,9 @@ public class BlockListBlock<T>
     private final int positionCount;
     private final int[] positionMap;
 
-    private volatile long sizeInBytes;
+    private volatile long sizeInBytes = -1;
+    // block of the last looked up position, positions are mostly accessed in order
+    private int lastBlockIndex;
     private final long retainedSizeInBytes;
     private final boolean hasNulls;
 
@@ -76,13 +84,32 @@ public class BlockListBlock<T>
     {
         checkValidPosition(position);
 
-        for (int i = 0; i < blockCount; i++) {
-            if (position < positionMap[i + 1]) {
-                return i;
+        // the cached index may be stale when the block is shared between threads, it is only a hint
+        int blockIdx = lastBlockIndex;
+        if (position >= positionMap[blockIdx]) {
+            if (position < positionMap[blockIdx + 1]) {
+                return blockIdx;
+            }
+            if (blockIdx + 2 <= blockCount && position < positionMap[blockIdx + 2]) {
+                lastBlockIndex = blockIdx + 1;
+                return blockIdx + 1;
             }
         }
 
-        throw new IllegalArgumentException("Not found");
+        // last block whose first position is not after the position, which skips empty blocks
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (positionMap[middle] <= position) {
+                low = middle;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        lastBlockIndex = low;
+        return low;
     }
 
     private void checkValidPosition(int position)
@@ -113,12 +140,16 @@ public class BlockListBlock<T>
     }
 
     @Override
-    public synchronized long getSizeInBytes()
+    public long getSizeInBytes()
     {
+        // racy but idempotent, concurrent callers compute the same value
+        long sizeInBytes = this.sizeInBytes;
         if (sizeInBytes < 0) {
+            sizeInBytes = 0;
             for (int i = 0; i < blockCount; i++) {
                 sizeInBytes += blocks[i].getSizeInBytes();
             }
+            this.sizeInBytes = sizeInBytes;
         }
 
         return sizeInBytes;
@@ -134,16 +165,17 @@ public class BlockListBlock<T>
     @Override
     public long getPositionsSizeInBytes(boolean[] positions)
     {
-        checkValidPosition(positions.length);
+        if (positions.length < positionCount) {
+            throw new IllegalArgumentException("positions array is smaller than positionCount");
+        }
         long totalSize = 0;
-        int positionIdx = 0;
         boolean[] used;
         Block block;
 
         for (int i = 0; i < blockCount; i++) {
             block = blocks[i];
             used = new boolean[block.getPositionCount()];
-            System.arraycopy(positions, positionIdx, used, 0, used.length);
+            System.arraycopy(positions, positionMap[i], used, 0, used.length);
 
             totalSize += block.getPositionsSizeInBytes(used);
         }
@@ -181,52 +213,114 @@ public class BlockListBlock<T>
         return blocks[0].getEncodingName();
     }
 
+    public int getBlockCount()
+    {
+        return blockCount;
+    }
+
+    public Block getBlock(int blockIndex)
+    {
+        checkBlockIndex(blockIndex);
+        return blocks[blockIndex];
+    }
+
+    /**
+     * Get the position of this block at which the given sub-block starts
+     */
+    public int getBlockPositionOffset(int blockIndex)
+    {
+        checkBlockIndex(blockIndex);
+        return positionMap[blockIndex];
+    }
+
+    private void checkBlockIndex(int blockIndex)
+    {
+        if (blockIndex < 0 || blockIndex >= blockCount) {
+            throw new IllegalArgumentException("blockIndex out of bounds");
+        }
+    }
+
     @Override
     public Block copyPositions(int[] positions, int offset, int length)
     {
-        throw new IllegalArgumentException("Not Supported");
+        checkArrayRange(positions, offset, length);
+        if (length == 0) {
+            return blocks[0].copyPositions(positions, offset, 0);
+        }
+
+        // copy each run of positions that falls into one sub-block at once
+        Block[] newBlocks = new Block[length];
+        int newBlockCount = 0;
+        int[] blockPositions = new int[length];
+        int i = offset;
+        while (i < offset + length) {
+            int blockIdx = lookupBlockForPosition(positions[i]);
+            int blockStart = positionMap[blockIdx];
+            int blockEnd = positionMap[blockIdx + 1];
+            int runLength = 0;
+            while (i < offset + length && positions[i] >= blockStart && positions[i] < blockEnd) {
+                blockPositions[runLength++] = positions[i++] - blockStart;
+            }
+            newBlocks[newBlockCount++] = blocks[blockIdx].copyPositions(blockPositions, 0, runLength);
+        }
+
+        if (newBlockCount == 1) {
+            return newBlocks[0];
+        }
+        return new BlockListBlock(newBlocks, newBlockCount, length);
     }
 
     @Override
     public Block getRegion(int positionOffset, int length)
     {
-        if (positionOffset < 0 || positionOffset + length > positionCount) {
+        return region(positionOffset, length, false);
+    }
+
+    @Override
+    public Block copyRegion(int position, int length)
+    {
+        return region(position, length, true);
+    }
+
+    private Block region(int positionOffset, int length, boolean copy)
+    {
+        if (positionOffset < 0 || length < 0 || positionOffset + length > positionCount) {
             throw new IllegalArgumentException("Not Supported");
         }
+        if (length == 0) {
+            return copy ? blocks[0].copyRegion(0, 0) : blocks[0].getRegion(0, 0);
+        }
 
         int blockIdx = lookupBlockForPosition(positionOffset);
-        Block[] newBlocks = new Block[blockCount];
+        Block[] newBlocks = new Block[blockCount - blockIdx];
         int newBlockCount = 0;
-        int newPositionCount = 0;
+        int blockOffset = positionOffset - positionMap[blockIdx];
+        int remaining = length;
         Block block;
 
-        for (int i = blockIdx; i < blockCount && length > 0; i++) {
+        for (int i = blockIdx; i < blockCount && remaining > 0; i++) {
             block = blocks[i];
+            int regionLength = Math.min(remaining, block.getPositionCount() - blockOffset);
 
-            /* if region is within the block return the block else wrap the candidate blocks */
-            if (block.getPositionCount() > (positionOffset - positionMap[blockIdx]) + length) {
-                newBlocks[newBlockCount++] = block.getRegion(positionOffset - positionMap[blockIdx], length);
-                newPositionCount += length;
-                length -= length;
+            /* whole blocks are shared unless copying, partial ones are wrapped as regions */
+            if (copy) {
+                newBlocks[newBlockCount++] = block.copyRegion(blockOffset, regionLength);
             }
-            else {
+            else if (regionLength == block.getPositionCount()) {
                 newBlocks[newBlockCount++] = block;
-                newPositionCount += block.getPositionCount();
-                length -= block.getPositionCount();
             }
+            else {
+                newBlocks[newBlockCount++] = block.getRegion(blockOffset, regionLength);
+            }
+            remaining -= regionLength;
+            blockOffset = 0;
         }
 
-        if (newBlockCount <= 1) {
+        if (newBlockCount == 1) {
             return newBlocks[0];
         }
 
-        return new BlockListBlock(newBlocks, newBlockCount, newPositionCount);
-    }
-
-    @Override
-    public Block copyRegion(int position, int length)
-    {
-        throw new IllegalArgumentException("Not Supported");
+        return new BlockListBlock(newBlocks, newBlockCount, length);
     }
 
     @Override
@@ -320,4 +414,77 @@ public class BlockListBlock<T>
         int blockIdx = lookupBlockForPosition(position);
         return (T) blocks[blockIdx].get(position - positionMap[blockIdx]);
     }
+
+    @Override
+    public boolean[] filter(BloomFilter filter, boolean[] validPositions)
+    {
+        for (int i = 0; i < blockCount; i++) {
+            int blockPositionCount = blocks[i].getPositionCount();
+            boolean[] blockPositions = new boolean[blockPositionCount];
+            System.arraycopy(validPositions, positionMap[i], blockPositions, 0, blockPositionCount);
+            blocks[i].filter(filter, blockPositions);
+            System.arraycopy(blockPositions, 0, validPositions, positionMap[i], blockPositionCount);
+        }
+        return validPositions;
+    }
+
+    @Override
+    public int filter(int[] positions, int positionCount, int[] matchedPositions, Function<Object, Boolean> test)
+    {
+        return filterBlocks(positions, positionCount, matchedPositions, (block, blockPositions, count, matched) -> block.filter(blockPositions, count, matched, test));
+    }
+
+    @Override
+    public int filterLong(int[] positions, int positionCount, int[] matchedPositions, LongPredicate test)
+    {
+        return filterBlocks(positions, positionCount, matchedPositions, (block, blockPositions, count, matched) -> block.filterLong(blockPositions, count, matched, test));
+    }
+
+    @Override
+    public int filterInt(int[] positions, int positionCount, int[] matchedPositions, IntPredicate test)
+    {
+        return filterBlocks(positions, positionCount, matchedPositions, (block, blockPositions, count, matched) -> block.filterInt(blockPositions, count, matched, test));
+    }
+
+    @Override
+    public int filterDouble(int[] positions, int positionCount, int[] matchedPositions, DoublePredicate test)
+    {
+        return filterBlocks(positions, positionCount, matchedPositions, (block, blockPositions, count, matched) -> block.filterDouble(blockPositions, count, matched, test));
+    }
+
+    @Override
+    public int filterSlice(int[] positions, int positionCount, int[] matchedPositions, SlicePredicate test)
+    {
+        return filterBlocks(positions, positionCount, matchedPositions, (block, blockPositions, count, matched) -> block.filterSlice(blockPositions, count, matched, test));
+    }
+
+    /**
+     * Filters each run of positions that falls into one sub-block with a single call on that block
+     */
+    private int filterBlocks(int[] positions, int positionCount, int[] matchedPositions, BlockFilter blockFilter)
+    {
+        int[] blockPositions = new int[positionCount];
+        int[] blockMatches = new int[positionCount];
+        int matchCount = 0;
+        int i = 0;
+        while (i < positionCount) {
+            int blockIdx = lookupBlockForPosition(positions[i]);
+            int blockStart = positionMap[blockIdx];
+            int blockEnd = positionMap[blockIdx + 1];
+            int runLength = 0;
+            while (i < positionCount && positions[i] >= blockStart && positions[i] < blockEnd) {
+                blockPositions[runLength++] = positions[i++] - blockStart;
+            }
+            int blockMatchCount = blockFilter.filter(blocks[blockIdx], blockPositions, runLength, blockMatches);
+            for (int j = 0; j < blockMatchCount; j++) {
+                matchedPositions[matchCount++] = blockMatches[j] + blockStart;
+            }
+        }
+        return matchCount;
+    }
+
+    private interface BlockFilter
+    {
+        int filter(Block block, int[] positions, int positionCount, int[] matchedPositions);
+    }
 }
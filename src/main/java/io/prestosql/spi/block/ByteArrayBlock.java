@@ -21,6 +21,8 @@ import javax.annotation.Nullable;
 import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 
 import static io.airlift.slice.SizeOf.sizeOf;
 import static io.prestosql.spi.block.BlockUtil.checkArrayRange;
@@ -229,8 +231,8 @@ public class ByteArrayBlock
     @Override
     public boolean[] filter(BloomFilter filter, boolean[] validPositions)
     {
-        for (int i = 0; i < values.length; i++) {
-            validPositions[i] = validPositions[i] && filter.test(values[i]);
+        for (int i = 0; i < positionCount; i++) {
+            validPositions[i] = validPositions[i] && filter.test(values[i + arrayOffset]);
         }
         return validPositions;
     }
@@ -255,6 +257,32 @@ public class ByteArrayBlock
         return matchCount;
     }
 
+    @Override
+    public int filterInt(int[] positions, int positionCount, int[] matchedPositions, IntPredicate test)
+    {
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i] + arrayOffset;
+            if ((valueIsNull == null || !valueIsNull[position]) && test.test(values[position])) {
+                matchedPositions[matchCount++] = positions[i];
+            }
+        }
+        return matchCount;
+    }
+
+    @Override
+    public int filterLong(int[] positions, int positionCount, int[] matchedPositions, LongPredicate test)
+    {
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i] + arrayOffset;
+            if ((valueIsNull == null || !valueIsNull[position]) && test.test(values[position])) {
+                matchedPositions[matchCount++] = positions[i];
+            }
+        }
+        return matchCount;
+    }
+
     @Override
     public Byte get(int position)
     {
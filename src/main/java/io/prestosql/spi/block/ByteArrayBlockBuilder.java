@@ -111,6 +111,26 @@ public class ByteArrayBlockBuilder<T>
         return new ByteArrayBlockBuilder(blockBuilderStatus, calculateBlockResetSize(positionCount));
     }
 
+    @Override
+    public BlockBuilder newBlockBuilderLike(BlockBuilderStatus blockBuilderStatus, int expectedEntries)
+    {
+        return new ByteArrayBlockBuilder(blockBuilderStatus, expectedEntries);
+    }
+
+    @Override
+    public BlockBuilder recycle(BlockBuilderStatus blockBuilderStatus)
+    {
+        if (hasNullValue) {
+            Arrays.fill(valueIsNull, 0, positionCount, false);
+        }
+        this.blockBuilderStatus = blockBuilderStatus;
+        positionCount = 0;
+        hasNullValue = false;
+        hasNonNullValue = false;
+        updateDataSize();
+        return this;
+    }
+
     private void growCapacity()
     {
         int newSize;
@@ -15,13 +15,17 @@ package io.prestosql.spi.block;
 
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import io.prestosql.spi.util.BloomFilter;
 import org.openjdk.jol.info.ClassLayout;
 
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
+import java.util.function.DoublePredicate;
 import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 
 import static io.airlift.slice.SizeOf.sizeOf;
 import static io.prestosql.spi.block.BlockUtil.checkArrayRange;
@@ -38,6 +42,12 @@ public class DictionaryBlock<T>
 {
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(DictionaryBlock.class).instanceSize() + ClassLayout.parseClass(DictionaryId.class).instanceSize();
 
+    // filter results are cached per dictionary entry unless the dictionary has more entries per filtered position
+    private static final int MAX_DICTIONARY_ENTRIES_PER_POSITION = 4;
+    private static final byte ENTRY_UNREFERENCED = 0;
+    private static final byte ENTRY_REFERENCED = 1;
+    private static final byte ENTRY_MATCHED = 2;
+
     private final int positionCount;
     private final Block<T> dictionary;
     private final int idsOffset;
@@ -407,6 +417,18 @@ public class DictionaryBlock<T>
         return ids[position + idsOffset];
     }
 
+    /**
+     * Copies the block with the data of its dictionary in the given direct memory, see {@link OffHeapMemory#copyOf(Block)}
+     */
+    DictionaryBlock<T> copyTo(OffHeapMemory offHeapMemory)
+    {
+        Block<T> newDictionary = offHeapMemory.copyOf(dictionary);
+        if (newDictionary == dictionary) {
+            return this;
+        }
+        return new DictionaryBlock<>(idsOffset, positionCount, newDictionary, ids, false, randomDictionaryId());
+    }
+
     public DictionaryId getDictionarySourceId()
     {
         return dictionarySourceId;
@@ -466,27 +488,151 @@ public class DictionaryBlock<T>
         }
     }
 
+    /**
+     * Probes the filter once per dictionary entry referenced by a valid position.
+     */
     @Override
-    public int filter(int[] positions, int positionCount, int[] matchedPositions, Function<Object, Boolean> test)
+    public boolean[] filter(BloomFilter filter, boolean[] validPositions)
     {
-        int matchCount = 0;
+        int[] positions = new int[positionCount];
+        int validCount = 0;
         for (int i = 0; i < positionCount; i++) {
-            if (dictionary.isNull(getId(positions[i]))) {
-                if (test.apply(null)) {
-                    matchedPositions[matchCount++] = positions[i];
-                }
+            if (validPositions[i]) {
+                positions[validCount++] = i;
+            }
+        }
+        int[] matchedPositions = new int[validCount];
+        int matchCount = filterReferencedEntries(positions, validCount, matchedPositions, (ids, idCount, matchedIds) -> filterDictionary(filter, ids, idCount, matchedIds));
+
+        Arrays.fill(validPositions, 0, positionCount, false);
+        for (int i = 0; i < matchCount; i++) {
+            validPositions[matchedPositions[i]] = true;
+        }
+        return validPositions;
+    }
+
+    private int filterDictionary(BloomFilter filter, int[] ids, int idCount, int[] matchedIds)
+    {
+        // probe the whole dictionary unless few of its entries are referenced, rather than copying them
+        int dictionarySize = dictionary.getPositionCount();
+        boolean wholeDictionary = idCount * 2 >= dictionarySize;
+        Block<T> entries = wholeDictionary ? dictionary : dictionary.copyPositions(ids, 0, idCount);
+        boolean[] entryMatches = new boolean[entries.getPositionCount()];
+        Arrays.fill(entryMatches, true);
+        entryMatches = entries.filter(filter, entryMatches);
+
+        int matchCount = 0;
+        for (int i = 0; i < idCount; i++) {
+            if (entryMatches[wholeDictionary ? ids[i] : i]) {
+                matchedIds[matchCount++] = ids[i];
             }
-            else {
-                T value = dictionary.get(getId(positions[i]));
+        }
+        return matchCount;
+    }
+
+    @Override
+    public int filter(int[] positions, int positionCount, int[] matchedPositions, Function<Object, Boolean> test)
+    {
+        return filterReferencedEntries(positions, positionCount, matchedPositions, (ids, idCount, matchedIds) -> {
+            int matchCount = 0;
+            for (int i = 0; i < idCount; i++) {
+                T value = dictionary.isNull(ids[i]) ? null : dictionary.get(ids[i]);
                 if (test.apply(value)) {
-                    matchedPositions[matchCount++] = positions[i];
+                    matchedIds[matchCount++] = ids[i];
                 }
             }
+            return matchCount;
+        });
+    }
+
+    @Override
+    public int filterLong(int[] positions, int positionCount, int[] matchedPositions, LongPredicate test)
+    {
+        return filterReferencedEntries(positions, positionCount, matchedPositions, (ids, idCount, matchedIds) -> dictionary.filterLong(ids, idCount, matchedIds, test));
+    }
+
+    @Override
+    public int filterInt(int[] positions, int positionCount, int[] matchedPositions, IntPredicate test)
+    {
+        return filterReferencedEntries(positions, positionCount, matchedPositions, (ids, idCount, matchedIds) -> dictionary.filterInt(ids, idCount, matchedIds, test));
+    }
+
+    @Override
+    public int filterDouble(int[] positions, int positionCount, int[] matchedPositions, DoublePredicate test)
+    {
+        return filterReferencedEntries(positions, positionCount, matchedPositions, (ids, idCount, matchedIds) -> dictionary.filterDouble(ids, idCount, matchedIds, test));
+    }
+
+    @Override
+    public int filterSlice(int[] positions, int positionCount, int[] matchedPositions, SlicePredicate test)
+    {
+        return filterReferencedEntries(positions, positionCount, matchedPositions, (ids, idCount, matchedIds) -> dictionary.filterSlice(ids, idCount, matchedIds, test));
+    }
+
+    /**
+     * Evaluates the dictionary filter once per dictionary entry referenced by the positions,
+     * and maps the results back to the positions through the ids. The results are kept in
+     * a byte per dictionary entry, unless the dictionary is much larger than the positions.
+     */
+    private int filterReferencedEntries(int[] positions, int positionCount, int[] matchedPositions, PositionsFilter dictionaryFilter)
+    {
+        int dictionarySize = dictionary.getPositionCount();
+        if (dictionarySize > (long) positionCount * MAX_DICTIONARY_ENTRIES_PER_POSITION) {
+            return filterPositionIds(positions, positionCount, matchedPositions, dictionaryFilter);
+        }
+
+        byte[] entryStates = new byte[dictionarySize];
+        IntArrayList referencedIds = new IntArrayList(min(positionCount, dictionarySize));
+        for (int i = 0; i < positionCount; i++) {
+            int id = getId(positions[i]);
+            if (entryStates[id] == ENTRY_UNREFERENCED) {
+                entryStates[id] = ENTRY_REFERENCED;
+                referencedIds.add(id);
+            }
+        }
+        int[] matchedIds = new int[referencedIds.size()];
+        int matchedIdCount = dictionaryFilter.filter(referencedIds.elements(), referencedIds.size(), matchedIds);
+        for (int i = 0; i < matchedIdCount; i++) {
+            entryStates[matchedIds[i]] = ENTRY_MATCHED;
+        }
+
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            if (entryStates[getId(positions[i])] == ENTRY_MATCHED) {
+                matchedPositions[matchCount++] = positions[i];
+            }
         }
+        return matchCount;
+    }
 
+    /**
+     * Filters the dictionary at the ids of the positions, and maps the matched ids back to positions.
+     * The matched ids are the ids of the matched positions in order, and equal ids match alike,
+     * so a single pass over the ids pairs them up.
+     */
+    private int filterPositionIds(int[] positions, int positionCount, int[] matchedPositions, PositionsFilter dictionaryFilter)
+    {
+        int[] positionIds = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            positionIds[i] = getId(positions[i]);
+        }
+        int[] matchedIds = new int[positionCount];
+        int matchedIdCount = dictionaryFilter.filter(positionIds, positionCount, matchedIds);
+
+        int matchCount = 0;
+        for (int i = 0; i < positionCount && matchCount < matchedIdCount; i++) {
+            if (positionIds[i] == matchedIds[matchCount]) {
+                matchedPositions[matchCount++] = positions[i];
+            }
+        }
         return matchCount;
     }
 
+    private interface PositionsFilter
+    {
+        int filter(int[] positions, int positionCount, int[] matchedPositions);
+    }
+
     @Override
     public T get(int position)
     {
@@ -13,13 +13,22 @@
  */
 package io.prestosql.spi.block;
 
+import io.airlift.slice.Slice;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
 
+import javax.annotation.Nullable;
+
 import java.util.Optional;
 
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static io.airlift.slice.Slices.wrappedLongArray;
+
 final class EncoderUtil
 {
+    // shorter runs of values are copied one by one, as a bulk copy has a fixed cost
+    private static final int MIN_BULK_COPY_LONGS = 16;
+
     private EncoderUtil()
     {
     }
@@ -62,6 +71,39 @@ final class EncoderUtil
         }
     }
 
+    /**
+     * Same as {@link #encodeNullsAsBits(SliceOutput, Block)} for a block whose nulls are given by
+     * {@code valueIsNull} from {@code positionOffset}, or null if the block has no nulls.
+     */
+    @SuppressWarnings({"NarrowingCompoundAssignment", "ImplicitNumericConversion"})
+    static void encodeNullsAsBits(SliceOutput sliceOutput, @Nullable boolean[] valueIsNull, int positionOffset, int positionCount)
+    {
+        sliceOutput.writeBoolean(valueIsNull != null);
+        if (valueIsNull == null) {
+            return;
+        }
+
+        byte[] bits = new byte[(positionCount + 7) / 8];
+        int fullBytes = positionCount >>> 3;
+        for (int i = 0; i < fullBytes; i++) {
+            int position = positionOffset + (i * 8);
+            byte value = 0;
+            value |= valueIsNull[position] ? 0b1000_0000 : 0;
+            value |= valueIsNull[position + 1] ? 0b0100_0000 : 0;
+            value |= valueIsNull[position + 2] ? 0b0010_0000 : 0;
+            value |= valueIsNull[position + 3] ? 0b0001_0000 : 0;
+            value |= valueIsNull[position + 4] ? 0b0000_1000 : 0;
+            value |= valueIsNull[position + 5] ? 0b0000_0100 : 0;
+            value |= valueIsNull[position + 6] ? 0b0000_0010 : 0;
+            value |= valueIsNull[position + 7] ? 0b0000_0001 : 0;
+            bits[i] = value;
+        }
+        for (int position = fullBytes * 8; position < positionCount; position++) {
+            bits[fullBytes] |= valueIsNull[positionOffset + position] ? 0b1000_0000 >>> (position & 0b111) : 0;
+        }
+        sliceOutput.writeBytes(bits);
+    }
+
     /**
      * Decode the bit stream created by encodeNullsAsBits.
      */
@@ -71,10 +113,14 @@ final class EncoderUtil
             return Optional.empty();
         }
 
-        // read null bits 8 at a time
+        // read all null bits at once
         boolean[] valueIsNull = new boolean[positionCount];
-        for (int position = 0; position < (positionCount & ~0b111); position += 8) {
-            byte value = sliceInput.readByte();
+        byte[] bits = new byte[(positionCount + 7) / 8];
+        sliceInput.readBytes(bits);
+        int fullBytes = positionCount >>> 3;
+        for (int i = 0; i < fullBytes; i++) {
+            int position = i * 8;
+            byte value = bits[i];
             valueIsNull[position] = ((value & 0b1000_0000) != 0);
             valueIsNull[position + 1] = ((value & 0b0100_0000) != 0);
             valueIsNull[position + 2] = ((value & 0b0010_0000) != 0);
@@ -84,17 +130,79 @@ final class EncoderUtil
             valueIsNull[position + 6] = ((value & 0b0000_0010) != 0);
             valueIsNull[position + 7] = ((value & 0b0000_0001) != 0);
         }
+        for (int position = fullBytes * 8; position < positionCount; position++) {
+            valueIsNull[position] = (bits[fullBytes] & (0b1000_0000 >>> (position & 0b111))) != 0;
+        }
 
-        // read last null bits
-        if ((positionCount & 0b111) > 0) {
-            byte value = sliceInput.readByte();
-            int mask = 0b1000_0000;
-            for (int position = positionCount & ~0b111; position < positionCount; position++) {
-                valueIsNull[position] = ((value & mask) != 0);
-                mask >>>= 1;
+        return Optional.of(valueIsNull);
+    }
+
+    /**
+     * Appends the values of the non-null positions of a block of {@code valuesPerPosition} longs per
+     * position, in the same byte order as {@link SliceOutput#writeLong(long)}. The runs of values
+     * between null positions are copied in bulk, unless they are too short to be worth a copy.
+     */
+    static void encodeLongValues(SliceOutput sliceOutput, long[] values, @Nullable boolean[] valueIsNull, int positionOffset, int positionCount, int valuesPerPosition)
+    {
+        Slice slice = wrappedLongArray(values);
+        if (valueIsNull == null) {
+            sliceOutput.writeBytes(slice, positionOffset * valuesPerPosition * SIZE_OF_LONG, positionCount * valuesPerPosition * SIZE_OF_LONG);
+            return;
+        }
+
+        int end = positionOffset + positionCount;
+        int position = positionOffset;
+        while (position < end) {
+            int runStart = position;
+            while (position < end && !valueIsNull[position]) {
+                position++;
+            }
+            int from = runStart * valuesPerPosition;
+            int to = position * valuesPerPosition;
+            if (to - from >= MIN_BULK_COPY_LONGS) {
+                sliceOutput.writeBytes(slice, from * SIZE_OF_LONG, (to - from) * SIZE_OF_LONG);
             }
+            else {
+                for (int i = from; i < to; i++) {
+                    sliceOutput.writeLong(values[i]);
+                }
+            }
+            // skip the null position
+            position++;
+        }
+    }
+
+    /**
+     * Reads the values written by {@link #encodeLongValues} into a new array {@code values}, which holds
+     * {@code valuesPerPosition} longs for each of the {@code positionCount} positions. The values of
+     * null positions are left zero.
+     */
+    static void decodeLongValues(SliceInput sliceInput, long[] values, @Nullable boolean[] valueIsNull, int positionCount, int valuesPerPosition)
+    {
+        Slice slice = wrappedLongArray(values);
+        if (valueIsNull == null) {
+            sliceInput.readBytes(slice, 0, positionCount * valuesPerPosition * SIZE_OF_LONG);
+            return;
         }
 
-        return Optional.of(valueIsNull);
+        int position = 0;
+        while (position < positionCount) {
+            int runStart = position;
+            while (position < positionCount && !valueIsNull[position]) {
+                position++;
+            }
+            int from = runStart * valuesPerPosition;
+            int to = position * valuesPerPosition;
+            if (to - from >= MIN_BULK_COPY_LONGS) {
+                sliceInput.readBytes(slice, from * SIZE_OF_LONG, (to - from) * SIZE_OF_LONG);
+            }
+            else {
+                for (int i = from; i < to; i++) {
+                    values[i] = sliceInput.readLong();
+                }
+            }
+            // skip the null position
+            position++;
+        }
     }
 }
@@ -15,6 +15,7 @@ package io.prestosql.spi.block;
 
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import io.prestosql.spi.type.UnscaledDecimal128Arithmetic;
 import io.prestosql.spi.util.BloomFilter;
 import org.openjdk.jol.info.ClassLayout;
 
@@ -29,6 +30,7 @@ import static io.prestosql.spi.block.BlockUtil.checkArrayRange;
 import static io.prestosql.spi.block.BlockUtil.checkValidRegion;
 import static io.prestosql.spi.block.BlockUtil.compactArray;
 import static io.prestosql.spi.block.BlockUtil.countUsedPositions;
+import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.pack;
 
 public class Int128ArrayBlock
         implements Block<long[]>
@@ -229,6 +231,22 @@ public class Int128ArrayBlock
         return sb.toString();
     }
 
+    long[] getRawValues()
+    {
+        return values;
+    }
+
+    int getRawValuesOffset()
+    {
+        return positionOffset;
+    }
+
+    @Nullable
+    boolean[] getRawValueIsNull()
+    {
+        return valueIsNull;
+    }
+
     private void checkReadablePosition(int position)
     {
         if (position < 0 || position >= getPositionCount()) {
@@ -239,9 +257,9 @@ public class Int128ArrayBlock
     @Override
     public boolean[] filter(BloomFilter filter, boolean[] validPositions)
     {
-        for (int i = 0; i < values.length / 2; i++) {
-            Slice value = Slices.wrappedLongArray(values[i * 2], values[i * 2 + 1]);
-            validPositions[i] = validPositions[i] && filter.test(value);
+        Slice slice = Slices.wrappedLongArray(values);
+        for (int i = 0; i < positionCount; i++) {
+            validPositions[i] = validPositions[i] && filter.test(slice, (i + positionOffset) * INT128_BYTES, INT128_BYTES);
         }
         return validPositions;
     }
@@ -269,6 +287,20 @@ public class Int128ArrayBlock
         return matchCount;
     }
 
+    @Override
+    public int filterSlice(int[] positions, int positionCount, int[] matchedPositions, SlicePredicate test)
+    {
+        Slice slice = Slices.wrappedLongArray(values);
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i] + positionOffset;
+            if ((valueIsNull == null || !valueIsNull[position]) && test.test(slice, position * INT128_BYTES, INT128_BYTES)) {
+                matchedPositions[matchCount++] = positions[i];
+            }
+        }
+        return matchCount;
+    }
+
     @Override
     public long[] get(int position)
     {
@@ -281,4 +313,146 @@ public class Int128ArrayBlock
 
         return val;
     }
+
+    /**
+     * Adds the non-null values as unscaled decimals. Stores the raw longs of the sum modulo 2^127,
+     * with the sign of the sum, at {@code result[resultOffset]} and {@code result[resultOffset + 1]},
+     * and returns how many times the sum exceeds 2^127, negated for a negative sum. This is the
+     * overflow that {@link UnscaledDecimal128Arithmetic#addWithOverflow(Slice, Slice, Slice)} reports.
+     */
+    public long sumDecimals(long[] result, int resultOffset)
+    {
+        boolean[] isNull = valueIsNull;
+        // 192 bit two's complement sum, which cannot overflow for any number of positions
+        long low = 0;
+        long high = 0;
+        long top = 0;
+        for (int i = positionOffset; i < positionOffset + positionCount; i++) {
+            long mask = isNull != null && isNull[i] ? 0 : -1L;
+            long rawLow = values[i * 2] & mask;
+            long rawHigh = values[(i * 2) + 1] & mask;
+            long addendLow = toTwosComplementLow(rawLow, rawHigh);
+            long addendHigh = toTwosComplementHigh(rawLow, rawHigh);
+
+            long sumLow = low + addendLow;
+            long sumHigh = high + addendHigh + carry(low, addendLow, sumLow);
+            top += (addendHigh >> 63) + carry(high, addendHigh, sumHigh);
+            low = sumLow;
+            high = sumHigh;
+        }
+
+        boolean negative = top < 0;
+        if (negative) {
+            boolean lowIsZero = low == 0;
+            boolean highIsZero = high == 0;
+            low = -low;
+            high = lowIsZero ? -high : ~high;
+            top = lowIsZero && highIsZero ? -top : ~top;
+        }
+        long overflow = (top << 1) | (high >>> 63);
+        high &= Long.MAX_VALUE;
+        pack(low, high, negative && (low | high) != 0, result, resultOffset);
+        return negative ? -overflow : overflow;
+    }
+
+    /**
+     * Stores the raw longs of the least non-null value as an unscaled decimal at
+     * {@code result[resultOffset]} and {@code result[resultOffset + 1]}
+     *
+     * @return false if all values are null, the result is then not set
+     */
+    public boolean minDecimal(long[] result, int resultOffset)
+    {
+        return selectDecimal(false, result, resultOffset);
+    }
+
+    /**
+     * Same as {@link #minDecimal(long[], int)} for the greatest value
+     */
+    public boolean maxDecimal(long[] result, int resultOffset)
+    {
+        return selectDecimal(true, result, resultOffset);
+    }
+
+    private boolean selectDecimal(boolean greatest, long[] result, int resultOffset)
+    {
+        boolean[] isNull = valueIsNull;
+        // null values take the key of the initial selection, so that they are never selected
+        long initialHigh = greatest ? Long.MIN_VALUE : Long.MAX_VALUE;
+        long initialLow = initialHigh;
+        long selectedHigh = initialHigh;
+        long selectedLow = initialLow;
+        int selected = -1;
+        for (int i = positionOffset; i < positionOffset + positionCount; i++) {
+            long rawLow = values[i * 2];
+            long rawHigh = values[(i * 2) + 1];
+            boolean positionIsNull = isNull != null && isNull[i];
+            long keyHigh = positionIsNull ? initialHigh : toTwosComplementHigh(rawLow, rawHigh);
+            long keyLow = positionIsNull ? initialLow : toTwosComplementLow(rawLow, rawHigh) ^ Long.MIN_VALUE;
+            boolean less = (keyHigh < selectedHigh) | ((keyHigh == selectedHigh) & (keyLow < selectedLow));
+            boolean greater = (keyHigh > selectedHigh) | ((keyHigh == selectedHigh) & (keyLow > selectedLow));
+            boolean select = greatest ? greater : less;
+            selectedHigh = select ? keyHigh : selectedHigh;
+            selectedLow = select ? keyLow : selectedLow;
+            selected = select ? i : selected;
+        }
+        if (selected < 0) {
+            return false;
+        }
+        result[resultOffset] = values[selected * 2];
+        result[resultOffset + 1] = values[(selected * 2) + 1];
+        return true;
+    }
+
+    /**
+     * Same as {@link #filterSlice(int[], int, int[], SlicePredicate)} for unscaled decimal values between
+     * the {@code low} and {@code high} decimals inclusive, given by their raw longs, without a call
+     * per value. {@code matchedPositions} may be {@code positions}.
+     */
+    public int filterDecimalRange(int[] positions, int positionCount, int[] matchedPositions, long lowRawLow, long lowRawHigh, long highRawLow, long highRawHigh)
+    {
+        long lowKeyHigh = toTwosComplementHigh(lowRawLow, lowRawHigh);
+        long lowKeyLow = toTwosComplementLow(lowRawLow, lowRawHigh) ^ Long.MIN_VALUE;
+        long highKeyHigh = toTwosComplementHigh(highRawLow, highRawHigh);
+        long highKeyLow = toTwosComplementLow(highRawLow, highRawHigh) ^ Long.MIN_VALUE;
+        boolean[] isNull = valueIsNull;
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i];
+            int index = position + positionOffset;
+            long rawLow = values[index * 2];
+            long rawHigh = values[(index * 2) + 1];
+            long keyHigh = toTwosComplementHigh(rawLow, rawHigh);
+            long keyLow = toTwosComplementLow(rawLow, rawHigh) ^ Long.MIN_VALUE;
+            boolean aboveLow = (keyHigh > lowKeyHigh) | ((keyHigh == lowKeyHigh) & (keyLow >= lowKeyLow));
+            boolean belowHigh = (keyHigh < highKeyHigh) | ((keyHigh == highKeyHigh) & (keyLow <= highKeyLow));
+            matchedPositions[matchCount] = position;
+            matchCount += aboveLow & belowHigh && (isNull == null || !isNull[index]) ? 1 : 0;
+        }
+        return matchCount;
+    }
+
+    // unscaled decimals keep the sign in the top bit of the high long, negative values are
+    // converted to two's complement to be added and compared as plain 128 bit integers
+    private static long toTwosComplementLow(long rawLow, long rawHigh)
+    {
+        long negative = rawHigh >> 63;
+        return (rawLow ^ negative) - negative;
+    }
+
+    private static long toTwosComplementHigh(long rawLow, long rawHigh)
+    {
+        long negative = rawHigh >> 63;
+        // negating the low long carries into the high long when it is zero
+        long carry = negative & (((rawLow | -rawLow) >>> 63) ^ 1);
+        return ((rawHigh & Long.MAX_VALUE) ^ negative) + carry;
+    }
+
+    /**
+     * Carry out of the top bit of the sum of {@code left}, {@code right} and a carry in
+     */
+    private static long carry(long left, long right, long sum)
+    {
+        return ((left & right) | ((left | right) & ~sum)) >>> 63;
+    }
 }
@@ -37,7 +37,7 @@ public class Int128ArrayBlockBuilder
     private static final Block NULL_VALUE_BLOCK = new Int128ArrayBlock(0, 1, new boolean[] {true}, new long[2]);
 
     @Nullable
-    private final BlockBuilderStatus blockBuilderStatus;
+    private BlockBuilderStatus blockBuilderStatus;
     private boolean initialized;
     private final int initialEntryCount;
 
@@ -125,6 +125,27 @@ public class Int128ArrayBlockBuilder
         return new Int128ArrayBlockBuilder(blockBuilderStatus, calculateBlockResetSize(positionCount));
     }
 
+    @Override
+    public BlockBuilder newBlockBuilderLike(BlockBuilderStatus blockBuilderStatus, int expectedEntries)
+    {
+        return new Int128ArrayBlockBuilder(blockBuilderStatus, expectedEntries);
+    }
+
+    @Override
+    public BlockBuilder recycle(BlockBuilderStatus blockBuilderStatus)
+    {
+        if (hasNullValue) {
+            Arrays.fill(valueIsNull, 0, positionCount, false);
+        }
+        this.blockBuilderStatus = blockBuilderStatus;
+        positionCount = 0;
+        entryPositionCount = 0;
+        hasNullValue = false;
+        hasNonNullValue = false;
+        updateDataSize();
+        return this;
+    }
+
     private void growCapacity()
     {
         int newSize;
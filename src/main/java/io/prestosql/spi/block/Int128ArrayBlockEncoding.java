@@ -16,7 +16,9 @@ package io.prestosql.spi.block;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
 
+import static io.prestosql.spi.block.EncoderUtil.decodeLongValues;
 import static io.prestosql.spi.block.EncoderUtil.decodeNullBits;
+import static io.prestosql.spi.block.EncoderUtil.encodeLongValues;
 import static io.prestosql.spi.block.EncoderUtil.encodeNullsAsBits;
 
 public class Int128ArrayBlockEncoding
@@ -36,12 +38,20 @@ public class Int128ArrayBlockEncoding
         int positionCount = block.getPositionCount();
         sliceOutput.appendInt(positionCount);
 
-        encodeNullsAsBits(sliceOutput, block);
-
-        for (int position = 0; position < positionCount; position++) {
-            if (!block.isNull(position)) {
-                sliceOutput.writeLong(block.getLong(position, 0));
-                sliceOutput.writeLong(block.getLong(position, 8));
+        // a builder is written from a view of the values built so far, without copying them
+        Block values = block instanceof Int128ArrayBlockBuilder ? block.getRegion(0, positionCount) : block;
+        if (values instanceof Int128ArrayBlock) {
+            Int128ArrayBlock int128ArrayBlock = (Int128ArrayBlock) values;
+            encodeNullsAsBits(sliceOutput, int128ArrayBlock.getRawValueIsNull(), int128ArrayBlock.getRawValuesOffset(), positionCount);
+            encodeLongValues(sliceOutput, int128ArrayBlock.getRawValues(), int128ArrayBlock.getRawValueIsNull(), int128ArrayBlock.getRawValuesOffset(), positionCount, 2);
+        }
+        else {
+            encodeNullsAsBits(sliceOutput, block);
+            for (int position = 0; position < positionCount; position++) {
+                if (!block.isNull(position)) {
+                    sliceOutput.writeLong(block.getLong(position, 0));
+                    sliceOutput.writeLong(block.getLong(position, 8));
+                }
             }
         }
     }
@@ -54,12 +64,7 @@ public class Int128ArrayBlockEncoding
         boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount).orElse(null);
 
         long[] values = new long[positionCount * 2];
-        for (int position = 0; position < positionCount; position++) {
-            if (valueIsNull == null || !valueIsNull[position]) {
-                values[position * 2] = sliceInput.readLong();
-                values[(position * 2) + 1] = sliceInput.readLong();
-            }
-        }
+        decodeLongValues(sliceInput, values, valueIsNull, positionCount, 2);
 
         return new Int128ArrayBlock(0, positionCount, valueIsNull, values);
     }
@@ -20,13 +20,17 @@ import javax.annotation.Nullable;
 
 import java.util.Optional;
 import java.util.function.BiConsumer;
+import java.util.function.DoublePredicate;
 import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 
 import static io.airlift.slice.SizeOf.sizeOf;
 import static io.prestosql.spi.block.BlockUtil.checkArrayRange;
 import static io.prestosql.spi.block.BlockUtil.checkValidRegion;
 import static io.prestosql.spi.block.BlockUtil.compactArray;
 import static io.prestosql.spi.block.BlockUtil.countUsedPositions;
+import static java.lang.Float.intBitsToFloat;
 
 public class IntArrayBlock
         implements Block<Integer>
@@ -235,8 +239,8 @@ public class IntArrayBlock
     @Override
     public boolean[] filter(BloomFilter filter, boolean[] validPositions)
     {
-        for (int i = 0; i < values.length; i++) {
-            validPositions[i] = validPositions[i] && filter.test(values[i]);
+        for (int i = 0; i < positionCount; i++) {
+            validPositions[i] = validPositions[i] && filter.test(values[i + arrayOffset]);
         }
         return validPositions;
     }
@@ -259,6 +263,45 @@ public class IntArrayBlock
         return matchCount;
     }
 
+    @Override
+    public int filterInt(int[] positions, int positionCount, int[] matchedPositions, IntPredicate test)
+    {
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i] + arrayOffset;
+            if ((valueIsNull == null || !valueIsNull[position]) && test.test(values[position])) {
+                matchedPositions[matchCount++] = positions[i];
+            }
+        }
+        return matchCount;
+    }
+
+    @Override
+    public int filterLong(int[] positions, int positionCount, int[] matchedPositions, LongPredicate test)
+    {
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i] + arrayOffset;
+            if ((valueIsNull == null || !valueIsNull[position]) && test.test(values[position])) {
+                matchedPositions[matchCount++] = positions[i];
+            }
+        }
+        return matchCount;
+    }
+
+    @Override
+    public int filterDouble(int[] positions, int positionCount, int[] matchedPositions, DoublePredicate test)
+    {
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i] + arrayOffset;
+            if ((valueIsNull == null || !valueIsNull[position]) && test.test(intBitsToFloat(values[position]))) {
+                matchedPositions[matchCount++] = positions[i];
+            }
+        }
+        return matchCount;
+    }
+
     @Override
     public Integer get(int position)
     {
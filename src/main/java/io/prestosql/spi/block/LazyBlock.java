@@ -17,6 +17,9 @@ import io.airlift.slice.Slice;
 import org.openjdk.jol.info.ClassLayout;
 
 import java.util.function.BiConsumer;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 
 import static java.util.Objects.requireNonNull;
 
@@ -268,6 +271,34 @@ public class LazyBlock<T>
         return block != null;
     }
 
+    @Override
+    public int filterLong(int[] positions, int positionCount, int[] matchedPositions, LongPredicate test)
+    {
+        assureLoaded();
+        return block.filterLong(positions, positionCount, matchedPositions, test);
+    }
+
+    @Override
+    public int filterInt(int[] positions, int positionCount, int[] matchedPositions, IntPredicate test)
+    {
+        assureLoaded();
+        return block.filterInt(positions, positionCount, matchedPositions, test);
+    }
+
+    @Override
+    public int filterDouble(int[] positions, int positionCount, int[] matchedPositions, DoublePredicate test)
+    {
+        assureLoaded();
+        return block.filterDouble(positions, positionCount, matchedPositions, test);
+    }
+
+    @Override
+    public int filterSlice(int[] positions, int positionCount, int[] matchedPositions, SlicePredicate test)
+    {
+        assureLoaded();
+        return block.filterSlice(positions, positionCount, matchedPositions, test);
+    }
+
     @Override
     public Block<T> getLoadedBlock()
     {
@@ -20,13 +20,16 @@ import javax.annotation.Nullable;
 
 import java.util.Optional;
 import java.util.function.BiConsumer;
+import java.util.function.DoublePredicate;
 import java.util.function.Function;
+import java.util.function.LongPredicate;
 
 import static io.airlift.slice.SizeOf.sizeOf;
 import static io.prestosql.spi.block.BlockUtil.checkArrayRange;
 import static io.prestosql.spi.block.BlockUtil.checkValidRegion;
 import static io.prestosql.spi.block.BlockUtil.compactArray;
 import static io.prestosql.spi.block.BlockUtil.countUsedPositions;
+import static java.lang.Double.longBitsToDouble;
 import static java.lang.Math.toIntExact;
 
 public class LongArrayBlock
@@ -277,6 +280,22 @@ public class LongArrayBlock
         return sb.toString();
     }
 
+    long[] getRawValues()
+    {
+        return values;
+    }
+
+    int getRawValuesOffset()
+    {
+        return arrayOffset;
+    }
+
+    @Nullable
+    boolean[] getRawValueIsNull()
+    {
+        return valueIsNull;
+    }
+
     private void checkReadablePosition(int position)
     {
         if (position < 0 || position >= getPositionCount()) {
@@ -287,8 +306,8 @@ public class LongArrayBlock
     @Override
     public boolean[] filter(BloomFilter filter, boolean[] validPositions)
     {
-        for (int i = arrayOffset; i < positionCount; i++) {
-            validPositions[i] = validPositions[i] && filter.test(values[i]);
+        for (int i = 0; i < positionCount; i++) {
+            validPositions[i] = validPositions[i] && filter.test(values[i + arrayOffset]);
         }
         return validPositions;
     }
@@ -310,4 +329,94 @@ public class LongArrayBlock
 
         return matchCount;
     }
+
+    @Override
+    public int filterLong(int[] positions, int positionCount, int[] matchedPositions, LongPredicate test)
+    {
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i] + arrayOffset;
+            if ((valueIsNull == null || !valueIsNull[position]) && test.test(values[position])) {
+                matchedPositions[matchCount++] = positions[i];
+            }
+        }
+        return matchCount;
+    }
+
+    @Override
+    public int filterDouble(int[] positions, int positionCount, int[] matchedPositions, DoublePredicate test)
+    {
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i] + arrayOffset;
+            if ((valueIsNull == null || !valueIsNull[position]) && test.test(longBitsToDouble(values[position]))) {
+                matchedPositions[matchCount++] = positions[i];
+            }
+        }
+        return matchCount;
+    }
+
+    /**
+     * Sum of the non-null values
+     *
+     * @throws ArithmeticException if the sum overflows
+     */
+    public long sum()
+    {
+        boolean[] isNull = valueIsNull;
+        long sum = 0;
+        for (int i = arrayOffset; i < arrayOffset + positionCount; i++) {
+            sum = Math.addExact(sum, isNull != null && isNull[i] ? 0 : values[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * Least of the non-null values, or {@link Long#MAX_VALUE} if there are none
+     */
+    public long min()
+    {
+        boolean[] isNull = valueIsNull;
+        long min = Long.MAX_VALUE;
+        for (int i = arrayOffset; i < arrayOffset + positionCount; i++) {
+            min = Math.min(min, isNull != null && isNull[i] ? Long.MAX_VALUE : values[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Greatest of the non-null values, or {@link Long#MIN_VALUE} if there are none
+     */
+    public long max()
+    {
+        boolean[] isNull = valueIsNull;
+        long max = Long.MIN_VALUE;
+        for (int i = arrayOffset; i < arrayOffset + positionCount; i++) {
+            max = Math.max(max, isNull != null && isNull[i] ? Long.MIN_VALUE : values[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Same as {@link #filterLong(int[], int, int[], LongPredicate)} for values between {@code low} and
+     * {@code high} inclusive, without a call per value. {@code matchedPositions} may be {@code positions}.
+     */
+    public int filterRange(int[] positions, int positionCount, int[] matchedPositions, long low, long high)
+    {
+        if (low > high) {
+            return 0;
+        }
+        // a value is in the range if its distance above low, as an unsigned long, is at most the width
+        long width = (high - low) + Long.MIN_VALUE;
+        boolean[] isNull = valueIsNull;
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i];
+            int index = position + arrayOffset;
+            boolean matches = (values[index] - low) + Long.MIN_VALUE <= width;
+            matchedPositions[matchCount] = position;
+            matchCount += matches && (isNull == null || !isNull[index]) ? 1 : 0;
+        }
+        return matchCount;
+    }
 }
@@ -112,6 +112,26 @@ public class LongArrayBlockBuilder
         return new LongArrayBlockBuilder(blockBuilderStatus, calculateBlockResetSize(positionCount));
     }
 
+    @Override
+    public BlockBuilder newBlockBuilderLike(BlockBuilderStatus blockBuilderStatus, int expectedEntries)
+    {
+        return new LongArrayBlockBuilder(blockBuilderStatus, expectedEntries);
+    }
+
+    @Override
+    public BlockBuilder recycle(BlockBuilderStatus blockBuilderStatus)
+    {
+        if (hasNullValue) {
+            Arrays.fill(valueIsNull, 0, positionCount, false);
+        }
+        this.blockBuilderStatus = blockBuilderStatus;
+        positionCount = 0;
+        hasNullValue = false;
+        hasNonNullValue = false;
+        updateDataSize();
+        return this;
+    }
+
     private void growCapacity()
     {
         int newSize;
@@ -16,7 +16,9 @@ package io.prestosql.spi.block;
 import io.airlift.slice.SliceInput;
 import io.airlift.slice.SliceOutput;
 
+import static io.prestosql.spi.block.EncoderUtil.decodeLongValues;
 import static io.prestosql.spi.block.EncoderUtil.decodeNullBits;
+import static io.prestosql.spi.block.EncoderUtil.encodeLongValues;
 import static io.prestosql.spi.block.EncoderUtil.encodeNullsAsBits;
 
 public class LongArrayBlockEncoding
@@ -36,11 +38,19 @@ public class LongArrayBlockEncoding
         int positionCount = block.getPositionCount();
         sliceOutput.appendInt(positionCount);
 
-        encodeNullsAsBits(sliceOutput, block);
-
-        for (int position = 0; position < positionCount; position++) {
-            if (!block.isNull(position)) {
-                sliceOutput.writeLong(block.getLong(position, 0));
+        // a builder is written from a view of the values built so far, without copying them
+        Block values = block instanceof LongArrayBlockBuilder ? block.getRegion(0, positionCount) : block;
+        if (values instanceof LongArrayBlock) {
+            LongArrayBlock longArrayBlock = (LongArrayBlock) values;
+            encodeNullsAsBits(sliceOutput, longArrayBlock.getRawValueIsNull(), longArrayBlock.getRawValuesOffset(), positionCount);
+            encodeLongValues(sliceOutput, longArrayBlock.getRawValues(), longArrayBlock.getRawValueIsNull(), longArrayBlock.getRawValuesOffset(), positionCount, 1);
+        }
+        else {
+            encodeNullsAsBits(sliceOutput, block);
+            for (int position = 0; position < positionCount; position++) {
+                if (!block.isNull(position)) {
+                    sliceOutput.writeLong(block.getLong(position, 0));
+                }
             }
         }
     }
@@ -53,11 +63,7 @@ public class LongArrayBlockEncoding
         boolean[] valueIsNull = decodeNullBits(sliceInput, positionCount).orElse(null);
 
         long[] values = new long[positionCount];
-        for (int position = 0; position < positionCount; position++) {
-            if (valueIsNull == null || !valueIsNull[position]) {
-                values[position] = sliceInput.readLong();
-            }
-        }
+        decodeLongValues(sliceInput, values, valueIsNull, positionCount, 1);
 
         return new LongArrayBlock(0, positionCount, valueIsNull, values);
     }
@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.block;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Direct memory for the data of blocks that are buffered for a long time, such as pages of a
+ * large result set. The garbage collector neither scans nor copies it, and its size is included
+ * in the retained size of the blocks on top of it.
+ * <p>
+ * The memory is not freed explicitly: each allocation is freed by its cleaner once no block,
+ * region or slice refers to it anymore, so reading a block never reads freed memory.
+ */
+@ThreadSafe
+public final class OffHeapMemory
+{
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    /**
+     * Allocates a slice of the given size in direct memory
+     */
+    public Slice allocate(int size)
+    {
+        Slice slice = Slices.wrappedBuffer(ByteBuffer.allocateDirect(size));
+        allocatedBytes.addAndGet(size);
+        return slice;
+    }
+
+    /**
+     * Copies the {@code length} bytes at {@code offset} in the slice to direct memory
+     */
+    public Slice copyOf(Slice slice, int offset, int length)
+    {
+        Slice copy = allocate(length);
+        copy.setBytes(0, slice, offset, length);
+        return copy;
+    }
+
+    /**
+     * Copies the variable width data of a block to direct memory, including the dictionary of a
+     * dictionary block and the value of a run length encoded block. Other blocks are returned as
+     * they are: the values of fixed width blocks are primitive arrays that the garbage collector
+     * does not need to scan, lazy blocks are not loaded, and the variable width data nested in
+     * other blocks, such as block lists, arrays and rows, stays on heap.
+     */
+    public Block copyOf(Block block)
+    {
+        if (block instanceof VariableWidthBlock) {
+            return ((VariableWidthBlock) block).copyTo(this);
+        }
+        if (block instanceof DictionaryBlock) {
+            return ((DictionaryBlock<?>) block).copyTo(this);
+        }
+        if (block instanceof RunLengthEncodedBlock) {
+            RunLengthEncodedBlock runLengthEncodedBlock = (RunLengthEncodedBlock) block;
+            Block value = copyOf(runLengthEncodedBlock.getValue());
+            return value == runLengthEncodedBlock.getValue() ? block : new RunLengthEncodedBlock(value, block.getPositionCount());
+        }
+        return block;
+    }
+
+    /**
+     * Bytes allocated so far, including memory that has been freed since
+     */
+    public long getAllocatedBytes()
+    {
+        return allocatedBytes.get();
+    }
+}
@@ -15,11 +15,16 @@ package io.prestosql.spi.block;
 
 import io.airlift.slice.Slice;
 import io.prestosql.spi.predicate.Utils;
+import io.prestosql.spi.util.BloomFilter;
 import io.prestosql.spi.type.Type;
 import org.openjdk.jol.info.ClassLayout;
 
+import java.util.Arrays;
 import java.util.function.BiConsumer;
+import java.util.function.DoublePredicate;
 import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 
 import static io.prestosql.spi.block.BlockUtil.checkArrayRange;
 import static io.prestosql.spi.block.BlockUtil.checkValidPosition;
@@ -31,6 +36,7 @@ public class RunLengthEncodedBlock<T>
         implements Block<T>
 {
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(RunLengthEncodedBlock.class).instanceSize();
+    private static final int[] SINGLE_POSITION = {0};
 
     public static RunLengthEncodedBlock create(Type type, Object value, int positionCount)
     {
@@ -306,23 +312,59 @@ public class RunLengthEncodedBlock<T>
         }
     }
 
+    @Override
+    public boolean[] filter(BloomFilter filter, boolean[] validPositions)
+    {
+        boolean[] valueMatches = value.filter(filter, new boolean[] {true});
+        if (!valueMatches[0]) {
+            Arrays.fill(validPositions, 0, positionCount, false);
+        }
+        return validPositions;
+    }
+
     @Override
     public int filter(int[] positions, int positionCount, int[] matchedPositions, Function<Object, Boolean> test)
     {
-        int matchCount = 0;
+        return filterValue(positions, positionCount, matchedPositions, test.apply(value.isNull(0) ? null : value.get(0)));
+    }
+
+    @Override
+    public int filterLong(int[] positions, int positionCount, int[] matchedPositions, LongPredicate test)
+    {
+        return filterValue(positions, positionCount, matchedPositions, value.filterLong(SINGLE_POSITION, 1, new int[1], test) == 1);
+    }
+
+    @Override
+    public int filterInt(int[] positions, int positionCount, int[] matchedPositions, IntPredicate test)
+    {
+        return filterValue(positions, positionCount, matchedPositions, value.filterInt(SINGLE_POSITION, 1, new int[1], test) == 1);
+    }
+
+    @Override
+    public int filterDouble(int[] positions, int positionCount, int[] matchedPositions, DoublePredicate test)
+    {
+        return filterValue(positions, positionCount, matchedPositions, value.filterDouble(SINGLE_POSITION, 1, new int[1], test) == 1);
+    }
+
+    @Override
+    public int filterSlice(int[] positions, int positionCount, int[] matchedPositions, SlicePredicate test)
+    {
+        return filterValue(positions, positionCount, matchedPositions, value.filterSlice(SINGLE_POSITION, 1, new int[1], test) == 1);
+    }
+
+    /**
+     * All positions share the value, so it is tested once.
+     */
+    private int filterValue(int[] positions, int positionCount, int[] matchedPositions, boolean valueMatches)
+    {
         for (int i = 0; i < positionCount; i++) {
             checkReadablePosition(positions[i]);
-            if (value.isNull(0)) {
-                if (test.apply(null)) {
-                    matchedPositions[matchCount++] = positions[i];
-                }
-            }
-            else if (test.apply(value.get(0))) {
-                matchedPositions[matchCount++] = positions[i];
-            }
         }
-
-        return matchCount;
+        if (!valueMatches) {
+            return 0;
+        }
+        System.arraycopy(positions, 0, matchedPositions, 0, positionCount);
+        return positionCount;
     }
 
     @Override
@@ -0,0 +1,26 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.block;
+
+import io.airlift.slice.Slice;
+
+/**
+ * Predicate on a value stored as {@code length} bytes at {@code offset} in a slice,
+ * so that variable width and 128 bit values can be tested without copying them.
+ */
+@FunctionalInterface
+public interface SlicePredicate
+{
+    boolean test(Slice slice, int offset, int length);
+}
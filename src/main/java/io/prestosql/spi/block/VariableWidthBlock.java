@@ -215,6 +215,17 @@ public class VariableWidthBlock
         return new VariableWidthBlock(0, length, newSlice, newOffsets, newValueIsNull);
     }
 
+    /**
+     * Copies the block with its data in the given direct memory
+     */
+    VariableWidthBlock copyTo(OffHeapMemory offHeapMemory)
+    {
+        int[] newOffsets = compactOffsets(offsets, arrayOffset, positionCount);
+        Slice newSlice = offHeapMemory.copyOf(slice, offsets[arrayOffset], newOffsets[positionCount]);
+        boolean[] newValueIsNull = valueIsNull == null ? null : compactArray(valueIsNull, arrayOffset, positionCount);
+        return new VariableWidthBlock(0, positionCount, newSlice, newOffsets, newValueIsNull);
+    }
+
     @Override
     public String toString()
     {
@@ -229,8 +240,8 @@ public class VariableWidthBlock
     public boolean[] filter(BloomFilter filter, boolean[] validPositions)
     {
         for (int i = 0; i < positionCount; i++) {
-            byte[] value = slice.slice(offsets[i + arrayOffset], offsets[i + arrayOffset + 1] - offsets[i + arrayOffset]).getBytes();
-            validPositions[i] = validPositions[i] && filter.test(value);
+            int position = i + arrayOffset;
+            validPositions[i] = validPositions[i] && filter.test(slice, offsets[position], offsets[position + 1] - offsets[position]);
         }
         return validPositions;
     }
@@ -256,6 +267,19 @@ public class VariableWidthBlock
         return matchCount;
     }
 
+    @Override
+    public int filterSlice(int[] positions, int positionCount, int[] matchedPositions, SlicePredicate test)
+    {
+        int matchCount = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i] + arrayOffset;
+            if ((valueIsNull == null || !valueIsNull[position]) && test.test(slice, offsets[position], offsets[position + 1] - offsets[position])) {
+                matchedPositions[matchCount++] = positions[i];
+            }
+        }
+        return matchCount;
+    }
+
     @Override
     public byte[] get(int position)
     {
@@ -48,6 +48,8 @@ public class VariableWidthBlockBuilder
     private static final int INSTANCE_SIZE = ClassLayout.parseClass(VariableWidthBlockBuilder.class).instanceSize();
 
     private BlockBuilderStatus blockBuilderStatus;
+    @Nullable
+    private final OffHeapMemory offHeapMemory;
 
     private boolean initialized;
     private int initialEntryCount;
@@ -66,8 +68,18 @@ public class VariableWidthBlockBuilder
     private long arraysRetainedSizeInBytes;
 
     public VariableWidthBlockBuilder(@Nullable BlockBuilderStatus blockBuilderStatus, int expectedEntries, int expectedBytes)
+    {
+        this(blockBuilderStatus, expectedEntries, expectedBytes, null);
+    }
+
+    /**
+     * Creates a builder whose blocks keep their data in the given direct memory instead of the heap.
+     * The data is copied there once, when a block is built.
+     */
+    public VariableWidthBlockBuilder(@Nullable BlockBuilderStatus blockBuilderStatus, int expectedEntries, int expectedBytes, @Nullable OffHeapMemory offHeapMemory)
     {
         this.blockBuilderStatus = blockBuilderStatus;
+        this.offHeapMemory = offHeapMemory;
 
         initialEntryCount = expectedEntries;
         initialSliceOutputSize = min(expectedBytes, MAX_ARRAY_SIZE);
@@ -342,14 +354,38 @@ public class VariableWidthBlockBuilder
         if (currentEntrySize > 0) {
             throw new IllegalStateException("Current entry must be closed before the block can be built");
         }
-        return new VariableWidthBlock(0, positions, sliceOutput.slice(), offsets, hasNullValue ? valueIsNull : null);
+        Slice slice = sliceOutput.slice();
+        if (offHeapMemory != null) {
+            slice = offHeapMemory.copyOf(slice, 0, slice.length());
+        }
+        return new VariableWidthBlock(0, positions, slice, offsets, hasNullValue ? valueIsNull : null);
     }
 
     @Override
     public BlockBuilder newBlockBuilderLike(BlockBuilderStatus blockBuilderStatus)
     {
         int currentSizeInBytes = positions == 0 ? positions : (getOffset(positions) - getOffset(0));
-        return new VariableWidthBlockBuilder(blockBuilderStatus, calculateBlockResetSize(positions), calculateBlockResetBytes(currentSizeInBytes));
+        return new VariableWidthBlockBuilder(blockBuilderStatus, calculateBlockResetSize(positions), calculateBlockResetBytes(currentSizeInBytes), offHeapMemory);
+    }
+
+    @Override
+    public BlockBuilder newBlockBuilderLike(BlockBuilderStatus blockBuilderStatus, int expectedEntries)
+    {
+        int currentSizeInBytes = positions == 0 ? positions : (getOffset(positions) - getOffset(0));
+        long expectedBytes = positions == 0 ? 0 : (long) currentSizeInBytes * expectedEntries / positions;
+        return new VariableWidthBlockBuilder(blockBuilderStatus, expectedEntries, calculateBlockResetBytes((int) min(expectedBytes, MAX_ARRAY_SIZE)), offHeapMemory);
+    }
+
+    @Override
+    public BlockBuilder recycle(BlockBuilderStatus blockBuilderStatus)
+    {
+        this.blockBuilderStatus = blockBuilderStatus;
+        // null flags and offsets are written for every entry, only the bytes need resetting
+        sliceOutput.reset();
+        positions = 0;
+        currentEntrySize = 0;
+        hasNullValue = false;
+        return this;
     }
 
     private int getOffset(int position)
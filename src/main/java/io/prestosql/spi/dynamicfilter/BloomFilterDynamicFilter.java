@@ -18,6 +18,7 @@ import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.util.BloomFilter;
+import io.prestosql.spi.util.SplitBlockBloomFilter;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -57,13 +58,36 @@ public class BloomFilterDynamicFilter
 
     public static BloomFilterDynamicFilter fromHashSetDynamicFilter(HashSetDynamicFilter hashSetDynamicFilter, double bloomFilterFpp)
     {
-        BloomFilter bloomFilter = BloomFilterDynamicFilter.createBloomFilterFromSet(hashSetDynamicFilter.getSetValues(), bloomFilterFpp);
+        return fromHashSetDynamicFilter(hashSetDynamicFilter, bloomFilterFpp, false);
+    }
+
+    /**
+     * @param splitBlock whether to build a {@link SplitBlockBloomFilter}, which probes a single cache line per value
+     */
+    public static BloomFilterDynamicFilter fromHashSetDynamicFilter(HashSetDynamicFilter hashSetDynamicFilter, double bloomFilterFpp, boolean splitBlock)
+    {
+        BloomFilter bloomFilter = BloomFilterDynamicFilter.createBloomFilterFromSet(hashSetDynamicFilter.getSetValues(), bloomFilterFpp, splitBlock);
         return new BloomFilterDynamicFilter(hashSetDynamicFilter.getFilterId(), hashSetDynamicFilter.getColumnHandle(), bloomFilter, hashSetDynamicFilter.getType());
     }
 
     public static BloomFilter createBloomFilterFromSet(Set valueSet, double bloomFilterFpp)
     {
-        BloomFilter bloomFilter = new BloomFilter(DEFAULT_DYNAMIC_FILTER_SIZE, bloomFilterFpp);
+        return createBloomFilterFromSet(valueSet, bloomFilterFpp, false);
+    }
+
+    public static BloomFilter createBloomFilterFromSet(Set valueSet, double bloomFilterFpp, boolean splitBlock)
+    {
+        BloomFilter bloomFilter = splitBlock
+                ? new SplitBlockBloomFilter(DEFAULT_DYNAMIC_FILTER_SIZE, bloomFilterFpp)
+                : new BloomFilter(DEFAULT_DYNAMIC_FILTER_SIZE, bloomFilterFpp);
+        if (valueSet instanceof LongHashSet) {
+            ((LongHashSet) valueSet).forEachLong(bloomFilter::addLong);
+            return bloomFilter;
+        }
+        if (valueSet instanceof SliceHashSet) {
+            ((SliceHashSet) valueSet).forEachSlice(bloomFilter::add);
+            return bloomFilter;
+        }
         for (Object value : valueSet) {
             if (value instanceof Long) {
                 bloomFilter.addLong((Long) value);
@@ -94,6 +118,9 @@ public class BloomFilterDynamicFilter
     @Override
     public boolean contains(Object value)
     {
+        if (!isInRange(value)) {
+            return false;
+        }
         // TODO: Only support Long and Slice value for now, fix this and use original value type
         if (value instanceof Long) {
             return bloomFilterDeserialized.test((Long) value);
@@ -106,6 +133,24 @@ public class BloomFilterDynamicFilter
         }
     }
 
+    @Override
+    public boolean contains(long value)
+    {
+        if (!isInRange(value)) {
+            return false;
+        }
+        return bloomFilterDeserialized.test(value);
+    }
+
+    @Override
+    public boolean contains(Slice slice, int offset, int length)
+    {
+        if (!isInRange(slice, offset, length)) {
+            return false;
+        }
+        return bloomFilterDeserialized.test(slice, offset, length);
+    }
+
     @Override
     public long getSize()
     {
@@ -116,8 +161,8 @@ public class BloomFilterDynamicFilter
     public DynamicFilter clone()
     {
         DynamicFilter clone = new BloomFilterDynamicFilter(filterId, columnHandle, bloomFilterDeserialized, type);
+        clone.setMin(min);
         clone.setMax(max);
-        clone.setMax(min);
         return clone;
     }
 
@@ -14,6 +14,7 @@
  */
 package io.prestosql.spi.dynamicfilter;
 
+import io.airlift.slice.Slice;
 import io.prestosql.spi.connector.ColumnHandle;
 
 import java.util.Objects;
@@ -83,6 +84,23 @@ public abstract class DynamicFilter
      */
     public abstract boolean contains(Object value);
 
+    /**
+     * Same as {@link #contains(Object)} for a long value, without boxing it where the filter supports that
+     */
+    public boolean contains(long value)
+    {
+        return contains((Object) value);
+    }
+
+    /**
+     * Same as {@link #contains(Object)} for the {@code length} bytes at {@code offset} in the slice,
+     * without copying them where the filter supports that
+     */
+    public boolean contains(Slice slice, int offset, int length)
+    {
+        return contains(slice.slice(offset, length));
+    }
+
     /**
      * Get the size of the current DynamicFilter
      *
@@ -144,6 +162,60 @@ public abstract class DynamicFilter
         this.max = max;
     }
 
+    /**
+     * Whether any value between the given bounds, such as the range of a block or the statistics
+     * of an ORC/Parquet stripe, might be in the filter. A null bound, or one that cannot be
+     * compared with the range of the filter, is treated as unbounded.
+     *
+     * @return false if no value in the range can pass the filter
+     */
+    public boolean mightMatch(Object min, Object max)
+    {
+        return !isEmpty() && !isBefore(max, this.min) && !isBefore(this.max, min);
+    }
+
+    /**
+     * Same as {@link #mightMatch(Object, Object)} for long bounds
+     */
+    public boolean mightMatch(long min, long max)
+    {
+        return !isEmpty() && isInRange(min, max);
+    }
+
+    /**
+     * Whether the value is within the minimum and maximum of the filter, if they are set
+     */
+    public boolean isInRange(Object value)
+    {
+        return !isBefore(value, min) && !isBefore(max, value);
+    }
+
+    public boolean isInRange(long value)
+    {
+        return isInRange(value, value);
+    }
+
+    public boolean isInRange(Slice slice, int offset, int length)
+    {
+        if (min instanceof Slice && ((Slice) min).compareTo(0, ((Slice) min).length(), slice, offset, length) > 0) {
+            return false;
+        }
+        return !(max instanceof Slice && ((Slice) max).compareTo(0, ((Slice) max).length(), slice, offset, length) < 0);
+    }
+
+    private boolean isInRange(long low, long high)
+    {
+        return !(min instanceof Long && high < (Long) min) && !(max instanceof Long && low > (Long) max);
+    }
+
+    private static boolean isBefore(Object left, Object right)
+    {
+        if (left == null || right == null || left.getClass() != right.getClass() || !(left instanceof Comparable)) {
+            return false;
+        }
+        return ((Comparable) left).compareTo(right) < 0;
+    }
+
     @Override
     public int hashCode()
     {
@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.dynamicfilter;
+
+import io.airlift.slice.Slice;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.LongArrayBlock;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.util.function.LongPredicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Probe side evaluation of a {@link DynamicFilter}: values outside the range of the filter are
+ * rejected first, and the remaining ones are tested against the set or Bloom filter only while
+ * that keeps rejecting enough of them. Once a sample of values shows that the filter passes
+ * almost everything, the evaluator falls back to the range check alone, since a dynamic filter
+ * may pass values that do not match. Use one evaluator per driver.
+ */
+@NotThreadSafe
+public class DynamicFilterEvaluator
+{
+    private static final int SAMPLE_SIZE = 4096;
+    private static final double MIN_REJECTION_RATE = 0.1;
+
+    private final DynamicFilter filter;
+    private boolean rangeOnly;
+    private int sampledValues;
+    private int rejectedValues;
+
+    public DynamicFilterEvaluator(DynamicFilter filter)
+    {
+        this.filter = requireNonNull(filter, "filter is null");
+        // an empty range filter has no bounds, it rejects values through contains
+        this.rangeOnly = filter instanceof RangeDynamicFilter && !filter.isEmpty();
+    }
+
+    /**
+     * Whether a block or stripe with the given value range might contain matching values, see
+     * {@link DynamicFilter#mightMatch(Object, Object)}
+     */
+    public boolean mightMatch(Object min, Object max)
+    {
+        return filter.mightMatch(min, max);
+    }
+
+    public boolean mightMatch(long min, long max)
+    {
+        return filter.mightMatch(min, max);
+    }
+
+    public boolean test(long value)
+    {
+        if (!filter.isInRange(value)) {
+            return false;
+        }
+        return rangeOnly || record(filter.contains(value));
+    }
+
+    public boolean test(Slice slice, int offset, int length)
+    {
+        if (!filter.isInRange(slice, offset, length)) {
+            return false;
+        }
+        return rangeOnly || record(filter.contains(slice, offset, length));
+    }
+
+    /**
+     * Copies the {@code positions} whose value passes {@link #test(long)} to {@code matchedPositions}
+     * in order and returns their count, null values never pass. Values of a {@link LongArrayBlock} are
+     * checked against the range of the filter by its bulk kernel, and only the values in range are
+     * tested one by one. {@code matchedPositions} may be {@code positions}.
+     */
+    public int filter(Block block, int[] positions, int positionCount, int[] matchedPositions)
+    {
+        if (!(block instanceof LongArrayBlock)) {
+            return block.filterLong(positions, positionCount, matchedPositions, this::test);
+        }
+        Object min = filter.getMin();
+        Object max = filter.getMax();
+        int matchCount = ((LongArrayBlock) block).filterRange(
+                positions,
+                positionCount,
+                matchedPositions,
+                min instanceof Long ? (Long) min : Long.MIN_VALUE,
+                max instanceof Long ? (Long) max : Long.MAX_VALUE);
+        if (rangeOnly || matchCount == 0) {
+            return matchCount;
+        }
+        LongPredicate contains = value -> record(filter.contains(value));
+        return block.filterLong(matchedPositions, matchCount, matchedPositions, contains);
+    }
+
+    /**
+     * Whether values in range are no longer tested against the set or Bloom filter
+     */
+    public boolean isRangeOnly()
+    {
+        return rangeOnly;
+    }
+
+    private boolean record(boolean matched)
+    {
+        if (!matched) {
+            rejectedValues++;
+        }
+        if (++sampledValues == SAMPLE_SIZE) {
+            rangeOnly = rejectedValues < SAMPLE_SIZE * MIN_REJECTION_RATE;
+            sampledValues = 0;
+            rejectedValues = 0;
+        }
+        return matched;
+    }
+}
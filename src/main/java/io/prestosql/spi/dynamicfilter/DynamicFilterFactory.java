@@ -14,10 +14,14 @@
  */
 package io.prestosql.spi.dynamicfilter;
 
+import io.airlift.slice.Slice;
 import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.util.BloomFilter;
 
 import java.util.Set;
 
+import static io.prestosql.spi.dynamicfilter.BloomFilterDynamicFilter.DEFAULT_BLOOM_FILTER_FPP;
+
 public class DynamicFilterFactory
 {
     private DynamicFilterFactory()
@@ -29,8 +33,111 @@ public class DynamicFilterFactory
         return new BloomFilterDynamicFilter(filterId, columnHandle, serializedBloomFilter, type);
     }
 
+    /**
+     * Creates a hash set filter of the values. A set of only longs or only slices is copied into a
+     * compact primitive set, so later changes to {@code values} are not seen by the filter, while
+     * changes to {@link HashSetDynamicFilter#getSetValues()} are. Other sets are referenced as they are.
+     */
     public static HashSetDynamicFilter create(String filterId, ColumnHandle columnHandle, Set values, DynamicFilter.Type type)
     {
-        return new HashSetDynamicFilter(filterId, columnHandle, values, type);
+        return new HashSetDynamicFilter(filterId, columnHandle, compact(values), type);
+    }
+
+    /**
+     * Creates the cheapest filter that is still selective for the build side values: a range
+     * filter when the long values cover their whole range, and so are exact, a hash set filter up
+     * to {@code maxSetSize} values, and a split block Bloom filter beyond that. The filter carries
+     * the minimum and maximum of the values, which are checked before the set or Bloom filter.
+     * As with {@link #create(String, ColumnHandle, Set, DynamicFilter.Type)}, a set of only longs
+     * or only slices is copied.
+     */
+    public static DynamicFilter createAdaptive(String filterId, ColumnHandle columnHandle, Set values, DynamicFilter.Type type, long maxSetSize)
+    {
+        Set compacted = compact(values);
+        Object[] range = getRange(compacted);
+        Object min = range[0];
+        Object max = range[1];
+        if (min instanceof Long) {
+            long width = (Long) max - (Long) min;
+            if (width >= 0 && width == compacted.size() - 1) {
+                return new RangeDynamicFilter(filterId, columnHandle, min, max, compacted.size(), type);
+            }
+        }
+
+        DynamicFilter filter;
+        if (compacted.size() <= maxSetSize) {
+            filter = new HashSetDynamicFilter(filterId, columnHandle, compacted, type);
+        }
+        else {
+            BloomFilter bloomFilter = BloomFilterDynamicFilter.createBloomFilterFromSet(compacted, DEFAULT_BLOOM_FILTER_FPP, true);
+            filter = new BloomFilterDynamicFilter(filterId, columnHandle, bloomFilter, type);
+        }
+        filter.setMin(min);
+        filter.setMax(max);
+        return filter;
+    }
+
+    /**
+     * Returns the minimum and maximum of the values, or nulls if the values are not all of the same comparable type
+     */
+    private static Object[] getRange(Set values)
+    {
+        if (values instanceof LongHashSet) {
+            long[] range = {Long.MAX_VALUE, Long.MIN_VALUE};
+            ((LongHashSet) values).forEachLong(value -> {
+                range[0] = Math.min(range[0], value);
+                range[1] = Math.max(range[1], value);
+            });
+            return values.isEmpty() ? new Object[2] : new Object[] {range[0], range[1]};
+        }
+
+        Comparable min = null;
+        Comparable max = null;
+        for (Object value : values) {
+            if (!(value instanceof Comparable) || (min != null && value.getClass() != min.getClass())) {
+                return new Object[2];
+            }
+            Comparable comparable = (Comparable) value;
+            if (min == null || comparable.compareTo(min) < 0) {
+                min = comparable;
+            }
+            if (max == null || comparable.compareTo(max) > 0) {
+                max = comparable;
+            }
+        }
+        return new Object[] {min, max};
+    }
+
+    /**
+     * Copies a set of only longs or only slices into a {@link LongHashSet} or {@link SliceHashSet},
+     * which are several times smaller and probed without boxing. Other sets are returned as they are.
+     */
+    private static Set compact(Set values)
+    {
+        if (values.isEmpty() || values instanceof LongHashSet || values instanceof SliceHashSet) {
+            return values;
+        }
+        Object first = values.iterator().next();
+        if (first instanceof Long) {
+            LongHashSet longs = new LongHashSet(values.size());
+            for (Object value : values) {
+                if (!(value instanceof Long)) {
+                    return values;
+                }
+                longs.add((long) value);
+            }
+            return longs;
+        }
+        if (first instanceof Slice) {
+            SliceHashSet slices = new SliceHashSet(values.size());
+            for (Object value : values) {
+                if (!(value instanceof Slice)) {
+                    return values;
+                }
+                slices.add((Slice) value);
+            }
+            return slices;
+        }
+        return values;
     }
 }
@@ -14,6 +14,7 @@
  */
 package io.prestosql.spi.dynamicfilter;
 
+import io.airlift.slice.Slice;
 import io.prestosql.spi.connector.ColumnHandle;
 
 import java.util.Set;
@@ -40,9 +41,36 @@ public class HashSetDynamicFilter
     @Override
     public boolean contains(Object value)
     {
+        if (!isInRange(value)) {
+            return false;
+        }
         return valueSet.contains(value);
     }
 
+    @Override
+    public boolean contains(long value)
+    {
+        if (!isInRange(value)) {
+            return false;
+        }
+        if (valueSet instanceof LongHashSet) {
+            return ((LongHashSet) valueSet).contains(value);
+        }
+        return valueSet.contains(value);
+    }
+
+    @Override
+    public boolean contains(Slice slice, int offset, int length)
+    {
+        if (!isInRange(slice, offset, length)) {
+            return false;
+        }
+        if (valueSet instanceof SliceHashSet) {
+            return ((SliceHashSet) valueSet).contains(slice, offset, length);
+        }
+        return valueSet.contains(slice.slice(offset, length));
+    }
+
     @Override
     public long getSize()
     {
@@ -53,8 +81,8 @@ public class HashSetDynamicFilter
     public DynamicFilter clone()
     {
         DynamicFilter clone = new HashSetDynamicFilter(filterId, columnHandle, valueSet, type);
+        clone.setMin(min);
         clone.setMax(max);
-        clone.setMax(min);
         return clone;
     }
 
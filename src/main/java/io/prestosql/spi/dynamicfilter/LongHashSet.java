@@ -0,0 +1,283 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.dynamicfilter;
+
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.LongConsumer;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.lang.String.format;
+
+/**
+ * Set of longs in a single open addressing {@code long[]} table with linear probing, taking
+ * 8 to 16 bytes per value instead of a boxed {@link Long} plus a {@link java.util.HashMap} node.
+ * {@link #contains(long)}, {@link #add(long)} and {@link #remove(long)} do not allocate. Removing a
+ * value moves the following values of its probe sequence back, so that lookups need no tombstones.
+ */
+public final class LongHashSet
+        extends AbstractSet<Long>
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(LongHashSet.class).instanceSize();
+    static final int MAX_TABLE_SIZE = 1 << 30;
+    static final double FILL_RATIO = 0.75;
+
+    // zero marks a free slot in the table, so the value zero itself is tracked separately
+    private long[] table;
+    private int mask;
+    private int maxFill;
+    private int size;
+    private boolean containsZero;
+
+    public LongHashSet(int expectedSize)
+    {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(format("Expected size '%s' is negative", expectedSize));
+        }
+        allocate(tableSize(expectedSize));
+    }
+
+    public boolean add(long value)
+    {
+        if (value == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+
+        int slot = slot(value, mask);
+        while (table[slot] != 0) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        size++;
+        if (size >= maxFill) {
+            rehash();
+        }
+        return true;
+    }
+
+    public boolean contains(long value)
+    {
+        if (value == 0) {
+            return containsZero;
+        }
+
+        int slot = slot(value, mask);
+        while (table[slot] != 0) {
+            if (table[slot] == value) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean remove(long value)
+    {
+        if (value == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+
+        int slot = slot(value, mask);
+        while (table[slot] != value) {
+            if (table[slot] == 0) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        // move back each following value whose probe sequence passes the freed slot
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (table[next] != 0) {
+            int home = slot(table[next], mask);
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                table[free] = table[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[free] = 0;
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean add(Long value)
+    {
+        return add(value.longValue());
+    }
+
+    @Override
+    public boolean contains(Object value)
+    {
+        return value instanceof Long && contains(((Long) value).longValue());
+    }
+
+    @Override
+    public boolean remove(Object value)
+    {
+        return value instanceof Long && remove(((Long) value).longValue());
+    }
+
+    @Override
+    public void clear()
+    {
+        Arrays.fill(table, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Passes every value to the consumer without boxing, in no particular order.
+     */
+    public void forEachLong(LongConsumer consumer)
+    {
+        if (containsZero) {
+            consumer.accept(0);
+        }
+        for (long value : table) {
+            if (value != 0) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Long> iterator()
+    {
+        return new Iterator<Long>()
+        {
+            // a removal moves values within the table, the iteration then continues over a copy
+            private long[] values = table;
+            private boolean zeroReturned = !containsZero;
+            private int slot = nextSlot(0);
+            private boolean canRemove;
+            private long last;
+
+            @Override
+            public boolean hasNext()
+            {
+                return !zeroReturned || slot < values.length;
+            }
+
+            @Override
+            public Long next()
+            {
+                if (!zeroReturned) {
+                    zeroReturned = true;
+                    last = 0;
+                }
+                else {
+                    if (slot >= values.length) {
+                        throw new NoSuchElementException();
+                    }
+                    last = values[slot];
+                    slot = nextSlot(slot + 1);
+                }
+                canRemove = true;
+                return last;
+            }
+
+            @Override
+            public void remove()
+            {
+                if (!canRemove) {
+                    throw new IllegalStateException();
+                }
+                canRemove = false;
+                if (values == table) {
+                    values = table.clone();
+                }
+                LongHashSet.this.remove(last);
+            }
+
+            private int nextSlot(int slot)
+            {
+                while (slot < values.length && values[slot] == 0) {
+                    slot++;
+                }
+                return slot;
+            }
+        };
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(table);
+    }
+
+    private void rehash()
+    {
+        if (table.length == MAX_TABLE_SIZE) {
+            throw new IllegalStateException("Hash table reached maximum size");
+        }
+        long[] oldTable = table;
+        allocate(table.length * 2);
+        for (long value : oldTable) {
+            if (value != 0) {
+                int slot = slot(value, mask);
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value;
+            }
+        }
+    }
+
+    private void allocate(int tableSize)
+    {
+        table = new long[tableSize];
+        mask = tableSize - 1;
+        maxFill = (int) Math.min(tableSize * FILL_RATIO, tableSize - 1);
+    }
+
+    static int tableSize(int expectedSize)
+    {
+        long minimumSize = (long) Math.ceil(Math.max(expectedSize, 1) / FILL_RATIO) + 1;
+        if (minimumSize > MAX_TABLE_SIZE) {
+            throw new IllegalArgumentException(format("Expected size '%s' is too large", expectedSize));
+        }
+        return Math.max(Integer.highestOneBit((int) minimumSize - 1) << 1, 4);
+    }
+
+    private static int slot(long value, int mask)
+    {
+        // spread the bits so that sequential values do not cluster
+        long hash = value * 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 32;
+        return (int) (hash ^ (hash >>> 16)) & mask;
+    }
+}
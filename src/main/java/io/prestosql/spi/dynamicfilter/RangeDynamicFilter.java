@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.dynamicfilter;
+
+import io.airlift.slice.Slice;
+import io.prestosql.spi.connector.ColumnHandle;
+
+/**
+ * Dynamic filter that only keeps the minimum and maximum of the build side values. It is exact
+ * when the values cover their whole range, and otherwise the cheapest filter to probe and ship.
+ */
+public class RangeDynamicFilter
+        extends DynamicFilter
+{
+    private final long size;
+
+    public RangeDynamicFilter(String filterId, ColumnHandle columnHandle, Object min, Object max, long size, Type type)
+    {
+        this.filterId = filterId;
+        this.columnHandle = columnHandle;
+        this.min = min;
+        this.max = max;
+        this.size = size;
+        this.type = type;
+    }
+
+    @Override
+    public boolean contains(Object value)
+    {
+        return size > 0 && value != null && isInRange(value);
+    }
+
+    @Override
+    public boolean contains(long value)
+    {
+        return size > 0 && isInRange(value);
+    }
+
+    @Override
+    public boolean contains(Slice slice, int offset, int length)
+    {
+        return size > 0 && isInRange(slice, offset, length);
+    }
+
+    /**
+     * Get the number of build side values the range was created from
+     */
+    @Override
+    public long getSize()
+    {
+        return size;
+    }
+
+    @Override
+    public DynamicFilter clone()
+    {
+        return new RangeDynamicFilter(filterId, columnHandle, min, max, size, type);
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+}
@@ -0,0 +1,353 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.dynamicfilter;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.airlift.slice.XxHash64;
+import org.openjdk.jol.info.ClassLayout;
+
+import javax.annotation.Nullable;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.lang.String.format;
+
+/**
+ * Set of byte strings whose bytes are appended to a single arena, indexed by an open addressing
+ * table of entry ids with linear probing. Besides the bytes, a value takes its arena offset, its
+ * hash and a table slot, about 14 bytes, instead of a {@link Slice} object, its backing array
+ * and a {@link java.util.HashMap} node. {@link #contains(Slice, int, int)} does not allocate.
+ * Removed values are only flagged, their bytes are dropped once they outnumber the values left.
+ */
+public final class SliceHashSet
+        extends AbstractSet<Slice>
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(SliceHashSet.class).instanceSize();
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+    private static final int INITIAL_ARENA_SIZE = 1024;
+
+    private byte[] arena;
+    private Slice arenaSlice;
+    private int arenaSize;
+
+    // entry i is stored in the arena at [offsets[i], offsets[i + 1])
+    private int[] offsets;
+    private int[] hashes;
+    // entries that are removed, null if none is
+    @Nullable
+    private boolean[] removed;
+    private int entryCount;
+    private int size;
+
+    // entry id plus one, zero marks a free slot
+    private int[] table;
+    private int mask;
+    private int maxFill;
+
+    public SliceHashSet(int expectedSize)
+    {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException(format("Expected size '%s' is negative", expectedSize));
+        }
+        arena = new byte[INITIAL_ARENA_SIZE];
+        arenaSlice = Slices.wrappedBuffer(arena);
+        offsets = new int[Math.max(expectedSize, 1) + 1];
+        hashes = new int[Math.max(expectedSize, 1)];
+        allocateTable(LongHashSet.tableSize(expectedSize));
+    }
+
+    /**
+     * Adds a copy of the {@code length} bytes at {@code offset} in the slice.
+     */
+    public boolean add(Slice slice, int offset, int length)
+    {
+        if (entryCount - size > size) {
+            compact();
+        }
+        int hash = hash(slice, offset, length);
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            if (matches(table[slot] - 1, hash, slice, offset, length)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        ensureCapacity(length);
+        slice.getBytes(offset, arena, arenaSize, length);
+        arenaSize += length;
+        hashes[entryCount] = hash;
+        offsets[entryCount + 1] = arenaSize;
+        entryCount++;
+        size++;
+        table[slot] = entryCount;
+        if (size >= maxFill) {
+            rehash();
+        }
+        return true;
+    }
+
+    public boolean contains(Slice slice, int offset, int length)
+    {
+        int hash = hash(slice, offset, length);
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            if (matches(table[slot] - 1, hash, slice, offset, length)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean remove(Slice slice, int offset, int length)
+    {
+        int hash = hash(slice, offset, length);
+        int slot = hash & mask;
+        while (table[slot] != 0 && !matches(table[slot] - 1, hash, slice, offset, length)) {
+            slot = (slot + 1) & mask;
+        }
+        if (table[slot] == 0) {
+            return false;
+        }
+        if (removed == null) {
+            removed = new boolean[hashes.length];
+        }
+        removed[table[slot] - 1] = true;
+        // move back each following entry whose probe sequence passes the freed slot
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (table[next] != 0) {
+            int home = hashes[table[next] - 1] & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                table[free] = table[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[free] = 0;
+        size--;
+        return true;
+    }
+
+    @Override
+    public boolean add(Slice value)
+    {
+        return add(value, 0, value.length());
+    }
+
+    @Override
+    public boolean contains(Object value)
+    {
+        if (!(value instanceof Slice)) {
+            return false;
+        }
+        Slice slice = (Slice) value;
+        return contains(slice, 0, slice.length());
+    }
+
+    @Override
+    public boolean remove(Object value)
+    {
+        if (!(value instanceof Slice)) {
+            return false;
+        }
+        Slice slice = (Slice) value;
+        return remove(slice, 0, slice.length());
+    }
+
+    @Override
+    public void clear()
+    {
+        Arrays.fill(table, 0);
+        removed = null;
+        arenaSize = 0;
+        entryCount = 0;
+        size = 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Passes every value to the consumer as a range of the arena, in insertion order.
+     */
+    public void forEachSlice(SliceConsumer consumer)
+    {
+        for (int entry = 0; entry < entryCount; entry++) {
+            if (removed == null || !removed[entry]) {
+                consumer.accept(arenaSlice, offsets[entry], offsets[entry + 1] - offsets[entry]);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<Slice> iterator()
+    {
+        return new Iterator<Slice>()
+        {
+            private int entry = nextEntry(0);
+            private Slice last;
+
+            @Override
+            public boolean hasNext()
+            {
+                return entry < entryCount;
+            }
+
+            @Override
+            public Slice next()
+            {
+                if (entry >= entryCount) {
+                    throw new NoSuchElementException();
+                }
+                last = arenaSlice.slice(offsets[entry], offsets[entry + 1] - offsets[entry]);
+                entry = nextEntry(entry + 1);
+                return last;
+            }
+
+            @Override
+            public void remove()
+            {
+                if (last == null) {
+                    throw new IllegalStateException();
+                }
+                // entries are only flagged, so the following ones keep their ids
+                SliceHashSet.this.remove(last, 0, last.length());
+                last = null;
+            }
+
+            private int nextEntry(int entry)
+            {
+                while (entry < entryCount && removed != null && removed[entry]) {
+                    entry++;
+                }
+                return entry;
+            }
+        };
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(arena) + sizeOf(offsets) + sizeOf(hashes) + sizeOf(removed) + sizeOf(table);
+    }
+
+    private boolean matches(int entry, int hash, Slice slice, int offset, int length)
+    {
+        int entryOffset = offsets[entry];
+        int entryLength = offsets[entry + 1] - entryOffset;
+        return hashes[entry] == hash
+                && entryLength == length
+                && arenaSlice.equals(entryOffset, entryLength, slice, offset, length);
+    }
+
+    private void ensureCapacity(int length)
+    {
+        if (entryCount == hashes.length) {
+            int newLength = (int) Math.min(2L * hashes.length, MAX_ARRAY_SIZE - 1);
+            if (newLength == entryCount) {
+                throw new IllegalStateException("Entries reached maximum size");
+            }
+            hashes = Arrays.copyOf(hashes, newLength);
+            offsets = Arrays.copyOf(offsets, newLength + 1);
+            if (removed != null) {
+                removed = Arrays.copyOf(removed, newLength);
+            }
+        }
+        if (arenaSize + (long) length > arena.length) {
+            long newLength = Math.max(2L * arena.length, (long) arenaSize + length);
+            if (arenaSize + (long) length > MAX_ARRAY_SIZE) {
+                throw new IllegalStateException("Arena reached maximum size");
+            }
+            arena = Arrays.copyOf(arena, (int) Math.min(newLength, MAX_ARRAY_SIZE));
+            arenaSlice = Slices.wrappedBuffer(arena);
+        }
+    }
+
+    private void rehash()
+    {
+        if (table.length == LongHashSet.MAX_TABLE_SIZE) {
+            throw new IllegalStateException("Hash table reached maximum size");
+        }
+        allocateTable(table.length * 2);
+        insertEntries();
+    }
+
+    /**
+     * Drops the bytes of the removed entries, which renumbers the entries left
+     */
+    private void compact()
+    {
+        int liveCount = 0;
+        int liveSize = 0;
+        for (int entry = 0; entry < entryCount; entry++) {
+            if (!removed[entry]) {
+                int entryOffset = offsets[entry];
+                int entryLength = offsets[entry + 1] - entryOffset;
+                System.arraycopy(arena, entryOffset, arena, liveSize, entryLength);
+                offsets[liveCount] = liveSize;
+                hashes[liveCount] = hashes[entry];
+                liveSize += entryLength;
+                liveCount++;
+            }
+        }
+        offsets[liveCount] = liveSize;
+        arenaSize = liveSize;
+        entryCount = liveCount;
+        removed = null;
+        Arrays.fill(table, 0);
+        insertEntries();
+    }
+
+    private void insertEntries()
+    {
+        for (int entry = 0; entry < entryCount; entry++) {
+            if (removed != null && removed[entry]) {
+                continue;
+            }
+            int slot = hashes[entry] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = entry + 1;
+        }
+    }
+
+    private void allocateTable(int tableSize)
+    {
+        table = new int[tableSize];
+        mask = tableSize - 1;
+        maxFill = (int) Math.min(tableSize * LongHashSet.FILL_RATIO, tableSize - 1);
+    }
+
+    private static int hash(Slice slice, int offset, int length)
+    {
+        long hash = XxHash64.hash(slice, offset, length);
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface SliceConsumer
+    {
+        void accept(Slice slice, int offset, int length);
+    }
+}
@@ -23,4 +23,9 @@ public interface DiscreteValues
     boolean isWhiteList();
 
     Collection<Object> getValues();
+
+    default int getValuesCount()
+    {
+        return getValues().size();
+    }
 }
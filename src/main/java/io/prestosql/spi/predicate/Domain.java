@@ -41,6 +41,8 @@ import static java.util.Objects.requireNonNull;
  */
 public final class Domain
 {
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 32;
+
     private final ValueSet values;
     private final boolean nullAllowed;
 
@@ -183,15 +185,45 @@ public final class Domain
     public Domain intersect(Domain other)
     {
         checkCompatibility(other);
+        // avoid rebuilding the value sets when the result is one of the domains
+        if (isSameAs(other) || other.isAll() || isNone()) {
+            return this;
+        }
+        if (isAll() || other.isNone()) {
+            return other;
+        }
+        if (isNullableSingleValue()) {
+            return other.includesNullableValue(getNullableSingleValue()) ? this : none(getType());
+        }
+        if (other.isNullableSingleValue()) {
+            return includesNullableValue(other.getNullableSingleValue()) ? other : none(getType());
+        }
         return new Domain(values.intersect(other.getValues()), this.isNullAllowed() && other.isNullAllowed());
     }
 
     public Domain union(Domain other)
     {
         checkCompatibility(other);
+        if (isSameAs(other) || isAll() || other.isNone()) {
+            return this;
+        }
+        if (other.isAll() || isNone()) {
+            return other;
+        }
+        if (isNullableSingleValue() && other.includesNullableValue(getNullableSingleValue())) {
+            return other;
+        }
+        if (other.isNullableSingleValue() && includesNullableValue(other.getNullableSingleValue())) {
+            return this;
+        }
         return new Domain(values.union(other.getValues()), this.isNullAllowed() || other.isNullAllowed());
     }
 
+    private boolean isSameAs(Domain other)
+    {
+        return this == other || (values == other.values && nullAllowed == other.nullAllowed);
+    }
+
     public static Domain union(List<Domain> domains)
     {
         if (domains.isEmpty()) {
@@ -201,11 +233,31 @@ public final class Domain
             return domains.get(0);
         }
 
+        Domain first = domains.get(0);
+        boolean allSame = true;
+        for (Domain domain : domains) {
+            if (domain.isAll()) {
+                return domain;
+            }
+            allSame = allSame && domain.isSameAs(first);
+        }
+        if (allSame) {
+            return first;
+        }
+
         boolean nullAllowed = false;
         List<ValueSet> valueSets = new ArrayList<>(domains.size());
         for (Domain domain : domains) {
-            valueSets.add(domain.getValues());
             nullAllowed = nullAllowed || domain.nullAllowed;
+            if (!domain.values.isNone()) {
+                valueSets.add(domain.getValues());
+            }
+        }
+        if (valueSets.isEmpty()) {
+            return new Domain(first.values, nullAllowed);
+        }
+        if (valueSets.size() == 1) {
+            return new Domain(valueSets.get(0), nullAllowed);
         }
 
         ValueSet unionedValues = valueSets.get(0).union(valueSets.subList(1, valueSets.size()));
@@ -259,22 +311,34 @@ public final class Domain
      */
     public Domain simplify()
     {
-        ValueSet simplifiedValueSet = values.getValuesProcessor().<Optional<ValueSet>>transform(
+        return simplify(DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Reduces the number of discrete components in the Domain if there are more than {@code threshold}.
+     * Ranges are replaced by their span and discrete values by all values, so the result contains
+     * the original Domain.
+     */
+    public Domain simplify(int threshold)
+    {
+        Optional<ValueSet> simplifiedValueSet = values.getValuesProcessor().transform(
                 ranges -> {
-                    if (ranges.getOrderedRanges().size() <= 32) {
+                    if (ranges.getRangeCount() <= threshold) {
                         return Optional.empty();
                     }
                     return Optional.of(ValueSet.ofRanges(ranges.getSpan()));
                 },
                 discreteValues -> {
-                    if (discreteValues.getValues().size() <= 32) {
+                    if (discreteValues.getValuesCount() <= threshold) {
                         return Optional.empty();
                     }
                     return Optional.of(ValueSet.all(values.getType()));
                 },
-                allOrNone -> Optional.empty())
-                .orElse(values);
-        return Domain.create(simplifiedValueSet, nullAllowed);
+                allOrNone -> Optional.empty());
+        if (!simplifiedValueSet.isPresent()) {
+            return this;
+        }
+        return Domain.create(simplifiedValueSet.get(), nullAllowed);
     }
 
     public String toString(ConnectorSession session)
@@ -19,10 +19,12 @@ import io.prestosql.spi.block.Block;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.type.Type;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -32,6 +34,7 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static java.lang.String.format;
+import static java.util.Arrays.asList;
 import static java.util.Collections.unmodifiableCollection;
 import static java.util.Collections.unmodifiableSet;
 import static java.util.Objects.requireNonNull;
@@ -42,13 +45,18 @@ import static java.util.stream.Collectors.toList;
  * A set containing values that are uniquely identifiable.
  * Assumes an infinite number of possible values. The values may be collectively included (aka whitelist)
  * or collectively excluded (aka !whitelist).
+ * <p>
+ * Values of types whose values are longs or slices are kept in a primitive hash set instead of
+ * single position blocks, see {@link EquatableValues}. The entries are then created on demand.
  */
 public class EquatableValueSet
         implements ValueSet
 {
     private final Type type;
     private final boolean whiteList;
-    private final Set<ValueEntry> entries;
+    // entries is created on demand when the values are kept in a primitive hash set
+    private volatile Set<ValueEntry> entries;
+    private final EquatableValues values;
 
     @JsonCreator
     public EquatableValueSet(
@@ -67,7 +75,23 @@ public class EquatableValueSet
         }
         this.type = type;
         this.whiteList = whiteList;
-        this.entries = unmodifiableSet(new LinkedHashSet<>(entries));
+        if (EquatableValues.isSupported(type)) {
+            this.values = EquatableValues.create(type, entries.size());
+            for (ValueEntry entry : entries) {
+                this.values.add(entry.getValue());
+            }
+        }
+        else {
+            this.entries = unmodifiableSet(new LinkedHashSet<>(entries));
+            this.values = null;
+        }
+    }
+
+    private EquatableValueSet(Type type, boolean whiteList, EquatableValues values)
+    {
+        this.type = requireNonNull(type, "type is null");
+        this.whiteList = whiteList;
+        this.values = requireNonNull(values, "values is null");
     }
 
     static EquatableValueSet none(Type type)
@@ -82,6 +106,12 @@ public class EquatableValueSet
 
     static EquatableValueSet of(Type type, Object first, Object... rest)
     {
+        if (EquatableValues.isSupported(type)) {
+            List<Object> values = new ArrayList<>(rest.length + 1);
+            values.add(first);
+            values.addAll(asList(rest));
+            return copyOf(type, values);
+        }
         HashSet<ValueEntry> set = new LinkedHashSet<>(rest.length + 1);
         set.add(ValueEntry.create(type, first));
         for (Object value : rest) {
@@ -92,11 +122,29 @@ public class EquatableValueSet
 
     static EquatableValueSet copyOf(Type type, Collection<Object> values)
     {
+        if (EquatableValues.isSupported(type)) {
+            checkType(type);
+            EquatableValues equatableValues = EquatableValues.create(type, values.size());
+            for (Object value : values) {
+                equatableValues.add(requireNonNull(value, "value is null"));
+            }
+            return new EquatableValueSet(type, true, equatableValues);
+        }
         return new EquatableValueSet(type, true, values.stream()
                 .map(value -> ValueEntry.create(type, value))
                 .collect(toLinkedSet()));
     }
 
+    private static void checkType(Type type)
+    {
+        if (!type.isComparable()) {
+            throw new IllegalArgumentException("Type is not comparable: " + type);
+        }
+        if (type.isOrderable()) {
+            throw new IllegalArgumentException("Use SortedRangeSet instead");
+        }
+    }
+
     @JsonProperty
     @Override
     public Type getType()
@@ -113,32 +161,49 @@ public class EquatableValueSet
     @JsonProperty
     public Set<ValueEntry> getEntries()
     {
-        return entries;
+        Set<ValueEntry> valueEntries = entries;
+        if (valueEntries == null) {
+            valueEntries = new LinkedHashSet<>(values.size());
+            for (Object value : values.getValues()) {
+                valueEntries.add(ValueEntry.create(type, value));
+            }
+            valueEntries = unmodifiableSet(valueEntries);
+            entries = valueEntries;
+        }
+        return valueEntries;
     }
 
     public Collection<Object> getValues()
     {
+        if (values != null) {
+            return unmodifiableCollection(values.getValues());
+        }
         return unmodifiableCollection(entries.stream()
                 .map(ValueEntry::getValue)
                 .collect(toList()));
     }
 
+    private int getValueCount()
+    {
+        return values != null ? values.size() : entries.size();
+    }
+
     @Override
     public boolean isNone()
     {
-        return whiteList && entries.isEmpty();
+        return whiteList && getValueCount() == 0;
     }
 
     @Override
     public boolean isAll()
     {
-        return !whiteList && entries.isEmpty();
+        return !whiteList && getValueCount() == 0;
     }
 
     @Override
     public boolean isSingleValue()
     {
-        return whiteList && entries.size() == 1;
+        return whiteList && getValueCount() == 1;
     }
 
     @Override
@@ -147,15 +212,34 @@ public class EquatableValueSet
         if (!isSingleValue()) {
             throw new IllegalStateException("EquatableValueSet does not have just a single value");
         }
+        if (values != null) {
+            return values.getValues().get(0);
+        }
         return entries.iterator().next().getValue();
     }
 
     @Override
     public boolean containsValue(Object value)
     {
+        if (values != null) {
+            return whiteList == values.contains(requireNonNull(value, "value is null"));
+        }
         return whiteList == entries.contains(ValueEntry.create(type, value));
     }
 
+    /**
+     * Whether the values are longs kept in a primitive hash set, see {@link #containsLong(long)}
+     */
+    boolean isLongValueSet()
+    {
+        return values != null && type.getJavaType() == long.class;
+    }
+
+    boolean containsLong(long value)
+    {
+        return whiteList == values.containsLong(value);
+    }
+
     @Override
     public DiscreteValues getDiscreteValues()
     {
@@ -172,6 +256,12 @@ public class EquatableValueSet
             {
                 return EquatableValueSet.this.getValues();
             }
+
+            @Override
+            public int getValuesCount()
+            {
+                return getValueCount();
+            }
         };
     }
 
@@ -199,6 +289,21 @@ public class EquatableValueSet
     {
         EquatableValueSet otherValueSet = checkCompatibility(other);
 
+        if (values != null && otherValueSet.values != null) {
+            if (whiteList && otherValueSet.isWhiteList()) {
+                return new EquatableValueSet(type, true, values.intersect(otherValueSet.values));
+            }
+            else if (whiteList) {
+                return new EquatableValueSet(type, true, values.subtract(otherValueSet.values));
+            }
+            else if (otherValueSet.isWhiteList()) {
+                return new EquatableValueSet(type, true, otherValueSet.values.subtract(values));
+            }
+            else {
+                return new EquatableValueSet(type, false, otherValueSet.values.union(values));
+            }
+        }
+
         if (whiteList && otherValueSet.isWhiteList()) {
             return new EquatableValueSet(type, true, intersect(entries, otherValueSet.entries));
         }
@@ -218,6 +323,21 @@ public class EquatableValueSet
     {
         EquatableValueSet otherValueSet = checkCompatibility(other);
 
+        if (values != null && otherValueSet.values != null) {
+            if (whiteList && otherValueSet.isWhiteList()) {
+                return new EquatableValueSet(type, true, values.union(otherValueSet.values));
+            }
+            else if (whiteList) {
+                return new EquatableValueSet(type, false, otherValueSet.values.subtract(values));
+            }
+            else if (otherValueSet.isWhiteList()) {
+                return new EquatableValueSet(type, false, values.subtract(otherValueSet.values));
+            }
+            else {
+                return new EquatableValueSet(type, false, otherValueSet.values.intersect(values));
+            }
+        }
+
         if (whiteList && otherValueSet.isWhiteList()) {
             return new EquatableValueSet(type, true, union(entries, otherValueSet.entries));
         }
@@ -235,13 +355,16 @@ public class EquatableValueSet
     @Override
     public EquatableValueSet complement()
     {
+        if (values != null) {
+            return new EquatableValueSet(type, !whiteList, values);
+        }
         return new EquatableValueSet(type, !whiteList, entries);
     }
 
     @Override
     public String toString(ConnectorSession session)
     {
-        return (whiteList ? "[ " : "EXCLUDES[ ") + entries.stream()
+        return (whiteList ? "[ " : "EXCLUDES[ ") + getEntries().stream()
                 .map(entry -> type.getObjectValue(session, entry.getBlock(), 0).toString())
                 .collect(Collectors.joining(", ")) + " ]";
     }
@@ -280,6 +403,9 @@ public class EquatableValueSet
     @Override
     public int hashCode()
     {
+        if (values != null) {
+            return Objects.hash(type, whiteList, values);
+        }
         return Objects.hash(type, whiteList, entries);
     }
 
@@ -293,6 +419,11 @@ public class EquatableValueSet
             return false;
         }
         final EquatableValueSet other = (EquatableValueSet) obj;
+        if (this.values != null || other.values != null) {
+            return Objects.equals(this.type, other.type)
+                    && this.whiteList == other.whiteList
+                    && Objects.equals(this.values, other.values);
+        }
         return Objects.equals(this.type, other.type)
                 && this.whiteList == other.whiteList
                 && Objects.equals(this.entries, other.entries);
@@ -0,0 +1,298 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.predicate;
+
+import io.airlift.slice.Slice;
+import io.prestosql.spi.dynamicfilter.LongHashSet;
+import io.prestosql.spi.dynamicfilter.SliceHashSet;
+import io.prestosql.spi.type.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Values of an {@link EquatableValueSet} of a type whose values are longs or slices, in insertion
+ * order and indexed by a primitive hash set, so that probes do not create a block per value.
+ * Values are compared by their native representation, which is how comparable types with long
+ * and slice values define equality.
+ */
+abstract class EquatableValues
+{
+    static boolean isSupported(Type type)
+    {
+        return type.getJavaType() == long.class || type.getJavaType() == Slice.class;
+    }
+
+    static EquatableValues create(Type type, int expectedSize)
+    {
+        if (type.getJavaType() == long.class) {
+            return new LongValues(expectedSize);
+        }
+        if (type.getJavaType() == Slice.class) {
+            return new SliceValues(expectedSize);
+        }
+        throw new IllegalArgumentException("Values of " + type + " are neither longs nor slices");
+    }
+
+    abstract void add(Object value);
+
+    abstract boolean contains(Object value);
+
+    boolean containsLong(long value)
+    {
+        throw new UnsupportedOperationException("Values are not longs");
+    }
+
+    abstract int size();
+
+    /**
+     * Native values in insertion order
+     */
+    abstract List<Object> getValues();
+
+    abstract EquatableValues intersect(EquatableValues other);
+
+    abstract EquatableValues union(EquatableValues other);
+
+    abstract EquatableValues subtract(EquatableValues other);
+
+    abstract boolean containsAll(EquatableValues other);
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        EquatableValues other = (EquatableValues) obj;
+        return size() == other.size() && containsAll(other);
+    }
+
+    private static final class LongValues
+            extends EquatableValues
+    {
+        private final LongHashSet index;
+        private long[] values;
+        private int size;
+
+        LongValues(int expectedSize)
+        {
+            index = new LongHashSet(expectedSize);
+            values = new long[Math.max(expectedSize, 1)];
+        }
+
+        @Override
+        void add(Object value)
+        {
+            add((long) value);
+        }
+
+        void add(long value)
+        {
+            if (index.add(value)) {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size++] = value;
+            }
+        }
+
+        @Override
+        boolean contains(Object value)
+        {
+            return value instanceof Long && index.contains((long) value);
+        }
+
+        @Override
+        boolean containsLong(long value)
+        {
+            return index.contains(value);
+        }
+
+        @Override
+        int size()
+        {
+            return size;
+        }
+
+        @Override
+        List<Object> getValues()
+        {
+            List<Object> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(values[i]);
+            }
+            return result;
+        }
+
+        @Override
+        EquatableValues intersect(EquatableValues other)
+        {
+            LongValues otherValues = (LongValues) other;
+            LongValues result = new LongValues(Math.min(size, otherValues.size));
+            for (int i = 0; i < size; i++) {
+                if (otherValues.index.contains(values[i])) {
+                    result.add(values[i]);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        EquatableValues union(EquatableValues other)
+        {
+            LongValues otherValues = (LongValues) other;
+            LongValues result = new LongValues(size + otherValues.size);
+            for (int i = 0; i < size; i++) {
+                result.add(values[i]);
+            }
+            for (int i = 0; i < otherValues.size; i++) {
+                result.add(otherValues.values[i]);
+            }
+            return result;
+        }
+
+        @Override
+        EquatableValues subtract(EquatableValues other)
+        {
+            LongValues otherValues = (LongValues) other;
+            LongValues result = new LongValues(size);
+            for (int i = 0; i < size; i++) {
+                if (!otherValues.index.contains(values[i])) {
+                    result.add(values[i]);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        boolean containsAll(EquatableValues other)
+        {
+            LongValues otherValues = (LongValues) other;
+            for (int i = 0; i < otherValues.size; i++) {
+                if (!index.contains(otherValues.values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            // independent of insertion order, as sets are
+            int hash = 0;
+            for (int i = 0; i < size; i++) {
+                hash += Long.hashCode(values[i]);
+            }
+            return hash;
+        }
+    }
+
+    private static final class SliceValues
+            extends EquatableValues
+    {
+        private final SliceHashSet values;
+
+        SliceValues(int expectedSize)
+        {
+            values = new SliceHashSet(expectedSize);
+        }
+
+        @Override
+        void add(Object value)
+        {
+            values.add((Slice) value);
+        }
+
+        @Override
+        boolean contains(Object value)
+        {
+            return values.contains(value);
+        }
+
+        @Override
+        int size()
+        {
+            return values.size();
+        }
+
+        @Override
+        List<Object> getValues()
+        {
+            return new ArrayList<>(values);
+        }
+
+        @Override
+        EquatableValues intersect(EquatableValues other)
+        {
+            SliceHashSet otherValues = ((SliceValues) other).values;
+            SliceValues result = new SliceValues(Math.min(values.size(), otherValues.size()));
+            values.forEachSlice((slice, offset, length) -> {
+                if (otherValues.contains(slice, offset, length)) {
+                    result.values.add(slice, offset, length);
+                }
+            });
+            return result;
+        }
+
+        @Override
+        EquatableValues union(EquatableValues other)
+        {
+            SliceHashSet otherValues = ((SliceValues) other).values;
+            SliceValues result = new SliceValues(values.size() + otherValues.size());
+            values.forEachSlice(result.values::add);
+            otherValues.forEachSlice(result.values::add);
+            return result;
+        }
+
+        @Override
+        EquatableValues subtract(EquatableValues other)
+        {
+            SliceHashSet otherValues = ((SliceValues) other).values;
+            SliceValues result = new SliceValues(values.size());
+            values.forEachSlice((slice, offset, length) -> {
+                if (!otherValues.contains(slice, offset, length)) {
+                    result.values.add(slice, offset, length);
+                }
+            });
+            return result;
+        }
+
+        @Override
+        boolean containsAll(EquatableValues other)
+        {
+            for (Slice value : ((SliceValues) other).values) {
+                if (!values.contains(value)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hash = 0;
+            for (Slice value : values) {
+                hash += value.hashCode();
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,532 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.predicate;
+
+import io.prestosql.spi.type.DecimalType;
+import io.prestosql.spi.type.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static java.lang.Double.doubleToLongBits;
+import static java.lang.Double.longBitsToDouble;
+
+/**
+ * Sorted, non-overlapping and non-adjacent ranges of a type whose values are longs, kept in
+ * parallel arrays of keys and inclusive flags. Keys order the same way as the type: they are the
+ * values themselves, and for DOUBLE the bits rearranged so that they sort as {@link Double#compare}.
+ * <p>
+ * Only the first range can be unbounded below and only the last one unbounded above. Their keys
+ * are then {@link Long#MIN_VALUE} and {@link Long#MAX_VALUE} inclusive, so that lookups need not
+ * check the unbounded flags.
+ */
+final class SortedLongRanges
+{
+    private static final SortedLongRanges NONE = new Builder(0).build();
+
+    private final long[] lows;
+    private final boolean[] lowInclusive;
+    private final long[] highs;
+    private final boolean[] highInclusive;
+    private final int count;
+    private final boolean lowUnbounded;
+    private final boolean highUnbounded;
+
+    private SortedLongRanges(long[] lows, boolean[] lowInclusive, long[] highs, boolean[] highInclusive, int count, boolean lowUnbounded, boolean highUnbounded)
+    {
+        this.lows = lows;
+        this.lowInclusive = lowInclusive;
+        this.highs = highs;
+        this.highInclusive = highInclusive;
+        this.count = count;
+        this.lowUnbounded = lowUnbounded;
+        this.highUnbounded = highUnbounded;
+    }
+
+    static boolean isSupported(Type type)
+    {
+        return type.equals(BIGINT) ||
+                type.equals(INTEGER) ||
+                type.equals(SMALLINT) ||
+                type.equals(TINYINT) ||
+                type.equals(DATE) ||
+                type.equals(DOUBLE) ||
+                (type instanceof DecimalType && ((DecimalType) type).isShort());
+    }
+
+    static SortedLongRanges none()
+    {
+        return NONE;
+    }
+
+    static SortedLongRanges all()
+    {
+        Builder builder = new Builder(1);
+        builder.append(true, 0, false, true, 0, false);
+        return builder.build();
+    }
+
+    /**
+     * Single value ranges of the given keys, which are sorted in place
+     */
+    static SortedLongRanges ofKeys(long[] keys, int keyCount)
+    {
+        Arrays.sort(keys, 0, keyCount);
+        Builder builder = new Builder(keyCount);
+        for (int i = 0; i < keyCount; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                builder.append(false, keys[i], true, false, keys[i], true);
+            }
+        }
+        return builder.build();
+    }
+
+    static SortedLongRanges copyOf(Type type, List<Range> ranges)
+    {
+        int rangeCount = ranges.size();
+        long[] rangeLows = new long[rangeCount];
+        boolean[] rangeLowInclusive = new boolean[rangeCount];
+        boolean[] rangeLowUnbounded = new boolean[rangeCount];
+        long[] rangeHighs = new long[rangeCount];
+        boolean[] rangeHighInclusive = new boolean[rangeCount];
+        boolean[] rangeHighUnbounded = new boolean[rangeCount];
+        boolean sorted = true;
+        for (int i = 0; i < rangeCount; i++) {
+            Range range = ranges.get(i);
+            Marker low = range.getLow();
+            if (low.isLowerUnbounded()) {
+                rangeLowUnbounded[i] = true;
+            }
+            else {
+                rangeLows[i] = toKey(type, low.getValue());
+                rangeLowInclusive[i] = low.getBound() == Marker.Bound.EXACTLY;
+            }
+            Marker high = range.getHigh();
+            if (high.isUpperUnbounded()) {
+                rangeHighUnbounded[i] = true;
+            }
+            else {
+                rangeHighs[i] = toKey(type, high.getValue());
+                rangeHighInclusive[i] = high.getBound() == Marker.Bound.EXACTLY;
+            }
+            if (i > 0 && compareLows(rangeLowUnbounded[i - 1], rangeLows[i - 1], rangeLowInclusive[i - 1], rangeLowUnbounded[i], rangeLows[i], rangeLowInclusive[i]) > 0) {
+                sorted = false;
+            }
+        }
+
+        Integer[] order = new Integer[rangeCount];
+        for (int i = 0; i < rangeCount; i++) {
+            order[i] = i;
+        }
+        if (!sorted) {
+            Arrays.sort(order, (left, right) -> compareLows(
+                    rangeLowUnbounded[left], rangeLows[left], rangeLowInclusive[left],
+                    rangeLowUnbounded[right], rangeLows[right], rangeLowInclusive[right]));
+        }
+
+        Builder builder = new Builder(rangeCount);
+        for (int i : order) {
+            builder.append(rangeLowUnbounded[i], rangeLows[i], rangeLowInclusive[i], rangeHighUnbounded[i], rangeHighs[i], rangeHighInclusive[i]);
+        }
+        return builder.build();
+    }
+
+    static long toKey(Type type, Object value)
+    {
+        if (type.equals(DOUBLE)) {
+            long bits = doubleToLongBits((Double) value);
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+        return (Long) value;
+    }
+
+    /**
+     * Key of a value as stored in a block, see {@link SortedRangeSet#containsValue(long)}
+     */
+    static long toKey(Type type, long value)
+    {
+        if (type.equals(DOUBLE)) {
+            long bits = doubleToLongBits(longBitsToDouble(value));
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
+        return value;
+    }
+
+    private static Object fromKey(Type type, long key)
+    {
+        if (type.equals(DOUBLE)) {
+            return longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+        }
+        return key;
+    }
+
+    int getRangeCount()
+    {
+        return count;
+    }
+
+    /**
+     * Whether the range at the index has inclusive bounds, which it does not when it is above
+     * {@link Long#MAX_VALUE} or below {@link Long#MIN_VALUE}, as {@link Range} allows
+     */
+    boolean hasInclusiveBounds(int index)
+    {
+        return (lowInclusive[index] || lows[index] != Long.MAX_VALUE) && (highInclusive[index] || highs[index] != Long.MIN_VALUE);
+    }
+
+    /**
+     * Least key in the range at the index, {@link Long#MIN_VALUE} if it is unbounded below.
+     * Only supported when {@link #hasInclusiveBounds}.
+     */
+    long getInclusiveLow(int index)
+    {
+        if (!lowInclusive[index] && lows[index] == Long.MAX_VALUE) {
+            throw new IllegalStateException("Range is above the greatest key");
+        }
+        return lowInclusive[index] ? lows[index] : lows[index] + 1;
+    }
+
+    /**
+     * Greatest key in the range at the index, {@link Long#MAX_VALUE} if it is unbounded above.
+     * Only supported when {@link #hasInclusiveBounds}.
+     */
+    long getInclusiveHigh(int index)
+    {
+        if (!highInclusive[index] && highs[index] == Long.MIN_VALUE) {
+            throw new IllegalStateException("Range is below the least key");
+        }
+        return highInclusive[index] ? highs[index] : highs[index] - 1;
+    }
+
+    boolean isNone()
+    {
+        return count == 0;
+    }
+
+    boolean isAll()
+    {
+        return count == 1 && lowUnbounded && highUnbounded;
+    }
+
+    boolean isSingleValue()
+    {
+        return count == 1 && !lowUnbounded && !highUnbounded && lows[0] == highs[0];
+    }
+
+    boolean containsKey(long key)
+    {
+        // the last range that starts at or before the key
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (lows[middle] <= key) {
+                low = middle + 1;
+            }
+            else {
+                high = middle - 1;
+            }
+        }
+        int index = high;
+        if (index < 0) {
+            return false;
+        }
+        return (lows[index] < key || lowInclusive[index]) &&
+                (key < highs[index] || (key == highs[index] && highInclusive[index]));
+    }
+
+    SortedLongRanges intersect(SortedLongRanges other)
+    {
+        Builder builder = new Builder(Math.max(count, other.count));
+        int left = 0;
+        int right = 0;
+        while (left < count && right < other.count) {
+            boolean leftLowUnbounded = isLowUnbounded(left);
+            boolean rightLowUnbounded = other.isLowUnbounded(right);
+            boolean leftHighUnbounded = isHighUnbounded(left);
+            boolean rightHighUnbounded = other.isHighUnbounded(right);
+
+            // the greater of the lows and the lesser of the highs
+            boolean lowFromLeft = compareLows(leftLowUnbounded, lows[left], lowInclusive[left], rightLowUnbounded, other.lows[right], other.lowInclusive[right]) >= 0;
+            int highComparison = compareHighs(leftHighUnbounded, highs[left], highInclusive[left], rightHighUnbounded, other.highs[right], other.highInclusive[right]);
+            boolean highFromLeft = highComparison <= 0;
+
+            boolean lowUnbounded = lowFromLeft ? leftLowUnbounded : rightLowUnbounded;
+            long low = lowFromLeft ? lows[left] : other.lows[right];
+            boolean lowIsInclusive = lowFromLeft ? lowInclusive[left] : other.lowInclusive[right];
+            boolean highUnbounded = highFromLeft ? leftHighUnbounded : rightHighUnbounded;
+            long high = highFromLeft ? highs[left] : other.highs[right];
+            boolean highIsInclusive = highFromLeft ? highInclusive[left] : other.highInclusive[right];
+            if (lowUnbounded || highUnbounded || low < high || (low == high && lowIsInclusive && highIsInclusive)) {
+                builder.append(lowUnbounded, low, lowIsInclusive, highUnbounded, high, highIsInclusive);
+            }
+
+            if (highComparison <= 0) {
+                left++;
+            }
+            else {
+                right++;
+            }
+        }
+        return builder.build();
+    }
+
+    SortedLongRanges union(SortedLongRanges other)
+    {
+        Builder builder = new Builder(count + other.count);
+        int left = 0;
+        int right = 0;
+        while (left < count || right < other.count) {
+            boolean takeLeft = right == other.count || (left < count &&
+                    compareLows(isLowUnbounded(left), lows[left], lowInclusive[left], other.isLowUnbounded(right), other.lows[right], other.lowInclusive[right]) <= 0);
+            if (takeLeft) {
+                builder.append(isLowUnbounded(left), lows[left], lowInclusive[left], isHighUnbounded(left), highs[left], highInclusive[left]);
+                left++;
+            }
+            else {
+                builder.append(other.isLowUnbounded(right), other.lows[right], other.lowInclusive[right], other.isHighUnbounded(right), other.highs[right], other.highInclusive[right]);
+                right++;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Unions the sets pairwise, so that each range is merged about log2(n) times instead of up to n times
+     */
+    static SortedLongRanges union(List<SortedLongRanges> rangeSets)
+    {
+        List<SortedLongRanges> current = new ArrayList<>(rangeSets);
+        while (current.size() > 1) {
+            List<SortedLongRanges> next = new ArrayList<>((current.size() + 1) / 2);
+            for (int i = 0; i + 1 < current.size(); i += 2) {
+                next.add(current.get(i).union(current.get(i + 1)));
+            }
+            if (current.size() % 2 == 1) {
+                next.add(current.get(current.size() - 1));
+            }
+            current = next;
+        }
+        return current.get(0);
+    }
+
+    SortedLongRanges complement()
+    {
+        if (count == 0) {
+            return all();
+        }
+        Builder builder = new Builder(count + 1);
+        if (!lowUnbounded) {
+            builder.append(true, 0, false, false, lows[0], !lowInclusive[0]);
+        }
+        for (int i = 1; i < count; i++) {
+            builder.append(false, highs[i - 1], !highInclusive[i - 1], false, lows[i], !lowInclusive[i]);
+        }
+        if (!highUnbounded) {
+            builder.append(false, highs[count - 1], !highInclusive[count - 1], true, 0, false);
+        }
+        return builder.build();
+    }
+
+    Range getRange(Type type, int index)
+    {
+        Marker low = isLowUnbounded(index) ? Marker.lowerUnbounded(type) : lowInclusive[index] ? Marker.exactly(type, fromKey(type, lows[index])) : Marker.above(type, fromKey(type, lows[index]));
+        Marker high = isHighUnbounded(index) ? Marker.upperUnbounded(type) : highInclusive[index] ? Marker.exactly(type, fromKey(type, highs[index])) : Marker.below(type, fromKey(type, highs[index]));
+        return new Range(low, high);
+    }
+
+    List<Range> getRanges(Type type)
+    {
+        List<Range> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ranges.add(getRange(type, i));
+        }
+        return ranges;
+    }
+
+    Range getSpan(Type type)
+    {
+        Marker low = getRange(type, 0).getLow();
+        Marker high = getRange(type, count - 1).getHigh();
+        return new Range(low, high);
+    }
+
+    Object getSingleValue(Type type)
+    {
+        return fromKey(type, lows[0]);
+    }
+
+    private boolean isLowUnbounded(int index)
+    {
+        return index == 0 && lowUnbounded;
+    }
+
+    private boolean isHighUnbounded(int index)
+    {
+        return index == count - 1 && highUnbounded;
+    }
+
+    private static int compareLows(boolean leftUnbounded, long left, boolean leftInclusive, boolean rightUnbounded, long right, boolean rightInclusive)
+    {
+        if (leftUnbounded || rightUnbounded) {
+            return Boolean.compare(rightUnbounded, leftUnbounded);
+        }
+        int comparison = Long.compare(left, right);
+        if (comparison != 0) {
+            return comparison;
+        }
+        // an inclusive low starts before an exclusive one
+        return Boolean.compare(rightInclusive, leftInclusive);
+    }
+
+    private static int compareHighs(boolean leftUnbounded, long left, boolean leftInclusive, boolean rightUnbounded, long right, boolean rightInclusive)
+    {
+        if (leftUnbounded || rightUnbounded) {
+            return Boolean.compare(leftUnbounded, rightUnbounded);
+        }
+        int comparison = Long.compare(left, right);
+        if (comparison != 0) {
+            return comparison;
+        }
+        // an inclusive high ends after an exclusive one
+        return Boolean.compare(leftInclusive, rightInclusive);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int hash = Boolean.hashCode(lowUnbounded) * 31 + Boolean.hashCode(highUnbounded);
+        for (int i = 0; i < count; i++) {
+            hash = hash * 31 + Long.hashCode(lows[i]);
+            hash = hash * 31 + Long.hashCode(highs[i]);
+            hash = hash * 31 + (lowInclusive[i] ? 1 : 0) + (highInclusive[i] ? 2 : 0);
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        SortedLongRanges other = (SortedLongRanges) obj;
+        if (count != other.count || lowUnbounded != other.lowUnbounded || highUnbounded != other.highUnbounded) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (lows[i] != other.lows[i] ||
+                    highs[i] != other.highs[i] ||
+                    lowInclusive[i] != other.lowInclusive[i] ||
+                    highInclusive[i] != other.highInclusive[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends ranges in the order of their lows, coalescing each one with the previous range when
+     * they overlap or are adjacent
+     */
+    private static class Builder
+    {
+        private long[] lows;
+        private boolean[] lowInclusive;
+        private long[] highs;
+        private boolean[] highInclusive;
+        private int count;
+        private boolean lowUnbounded;
+        private boolean highUnbounded;
+
+        Builder(int expectedCount)
+        {
+            int capacity = Math.max(expectedCount, 1);
+            lows = new long[capacity];
+            lowInclusive = new boolean[capacity];
+            highs = new long[capacity];
+            highInclusive = new boolean[capacity];
+        }
+
+        void append(boolean rangeLowUnbounded, long low, boolean rangeLowInclusive, boolean rangeHighUnbounded, long high, boolean rangeHighInclusive)
+        {
+            if (highUnbounded) {
+                // the previous range already extends to the end
+                return;
+            }
+            if (count > 0 && (rangeLowUnbounded || low < highs[count - 1] || (low == highs[count - 1] && (rangeLowInclusive || highInclusive[count - 1])))) {
+                int last = count - 1;
+                if (rangeHighUnbounded) {
+                    highUnbounded = true;
+                    highs[last] = Long.MAX_VALUE;
+                    highInclusive[last] = true;
+                }
+                else if (high > highs[last] || (high == highs[last] && rangeHighInclusive)) {
+                    highs[last] = high;
+                    highInclusive[last] = rangeHighInclusive;
+                }
+                return;
+            }
+
+            if (count == lows.length) {
+                int capacity = count * 2;
+                lows = Arrays.copyOf(lows, capacity);
+                lowInclusive = Arrays.copyOf(lowInclusive, capacity);
+                highs = Arrays.copyOf(highs, capacity);
+                highInclusive = Arrays.copyOf(highInclusive, capacity);
+            }
+            if (rangeLowUnbounded) {
+                lowUnbounded = true;
+                lows[count] = Long.MIN_VALUE;
+                lowInclusive[count] = true;
+            }
+            else {
+                lows[count] = low;
+                lowInclusive[count] = rangeLowInclusive;
+            }
+            if (rangeHighUnbounded) {
+                highUnbounded = true;
+                highs[count] = Long.MAX_VALUE;
+                highInclusive[count] = true;
+            }
+            else {
+                highs[count] = high;
+                highInclusive[count] = rangeHighInclusive;
+            }
+            count++;
+        }
+
+        SortedLongRanges build()
+        {
+            return new SortedLongRanges(
+                    Arrays.copyOf(lows, count),
+                    Arrays.copyOf(lowInclusive, count),
+                    Arrays.copyOf(highs, count),
+                    Arrays.copyOf(highInclusive, count),
+                    count,
+                    lowUnbounded,
+                    highUnbounded);
+        }
+    }
+}
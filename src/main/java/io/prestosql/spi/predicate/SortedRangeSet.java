@@ -41,12 +41,18 @@ import static java.util.Objects.requireNonNull;
  * Ranges are coalesced into the most compact representation of non-overlapping Ranges. This structure
  * allows iteration across these compacted Ranges in increasing order, as well as other common
  * set-related operation.
+ * <p>
+ * Ranges of fixed width types whose values are longs, such as BIGINT, DATE, DOUBLE and short
+ * DECIMAL, are kept in sorted primitive arrays instead of a map of markers, see {@link SortedLongRanges}.
+ * Lookups are then binary searches and intersect and union are linear merges.
  */
 public final class SortedRangeSet
         implements ValueSet
 {
     private final Type type;
-    private final NavigableMap<Marker, Range> lowIndexedRanges;
+    // exactly one of these is set on construction, the map is created on demand for long ranges
+    private volatile NavigableMap<Marker, Range> lowIndexedRanges;
+    private final SortedLongRanges longRanges;
 
     private SortedRangeSet(Type type, NavigableMap<Marker, Range> lowIndexedRanges)
     {
@@ -58,15 +64,28 @@ public final class SortedRangeSet
         }
         this.type = type;
         this.lowIndexedRanges = lowIndexedRanges;
+        this.longRanges = null;
+    }
+
+    private SortedRangeSet(Type type, SortedLongRanges longRanges)
+    {
+        this.type = requireNonNull(type, "type is null");
+        this.longRanges = requireNonNull(longRanges, "longRanges is null");
     }
 
     static SortedRangeSet none(Type type)
     {
+        if (SortedLongRanges.isSupported(type)) {
+            return new SortedRangeSet(type, SortedLongRanges.none());
+        }
         return copyOf(type, Collections.emptyList());
     }
 
     static SortedRangeSet all(Type type)
     {
+        if (SortedLongRanges.isSupported(type)) {
+            return new SortedRangeSet(type, SortedLongRanges.all());
+        }
         return copyOf(type, Collections.singletonList(Range.all(type)));
     }
 
@@ -75,6 +94,12 @@ public final class SortedRangeSet
      */
     static SortedRangeSet of(Type type, Object first, Object... rest)
     {
+        if (SortedLongRanges.isSupported(type)) {
+            List<Object> values = new ArrayList<>(rest.length + 1);
+            values.add(first);
+            values.addAll(asList(rest));
+            return copyOfValues(type, values);
+        }
         List<Range> ranges = new ArrayList<>(rest.length + 1);
         ranges.add(Range.equal(type, first));
         for (Object value : rest) {
@@ -94,6 +119,28 @@ public final class SortedRangeSet
         return copyOf(first.getType(), rangeList);
     }
 
+    /**
+     * Provided discrete values that are unioned together to form the SortedRangeSet
+     */
+    static SortedRangeSet copyOfValues(Type type, Collection<Object> values)
+    {
+        if (!SortedLongRanges.isSupported(type)) {
+            List<Range> ranges = new ArrayList<>(values.size());
+            for (Object value : values) {
+                ranges.add(Range.equal(type, value));
+            }
+            return copyOf(type, ranges);
+        }
+
+        long[] keys = new long[values.size()];
+        int keyCount = 0;
+        for (Object value : values) {
+            requireNonNull(value, "value is null");
+            keys[keyCount++] = SortedLongRanges.toKey(type, value);
+        }
+        return new SortedRangeSet(type, SortedLongRanges.ofKeys(keys, keyCount));
+    }
+
     /**
      * Provided Ranges are unioned together to form the SortedRangeSet
      */
@@ -120,29 +167,44 @@ public final class SortedRangeSet
     @JsonProperty("ranges")
     public List<Range> getOrderedRanges()
     {
+        if (longRanges != null) {
+            return longRanges.getRanges(type);
+        }
         return new ArrayList<>(lowIndexedRanges.values());
     }
 
     public int getRangeCount()
     {
+        if (longRanges != null) {
+            return longRanges.getRangeCount();
+        }
         return lowIndexedRanges.size();
     }
 
     @Override
     public boolean isNone()
     {
+        if (longRanges != null) {
+            return longRanges.isNone();
+        }
         return lowIndexedRanges.isEmpty();
     }
 
     @Override
     public boolean isAll()
     {
+        if (longRanges != null) {
+            return longRanges.isAll();
+        }
         return lowIndexedRanges.size() == 1 && lowIndexedRanges.values().iterator().next().isAll();
     }
 
     @Override
     public boolean isSingleValue()
     {
+        if (longRanges != null) {
+            return longRanges.isSingleValue();
+        }
         return lowIndexedRanges.size() == 1 && lowIndexedRanges.values().iterator().next().isSingleValue();
     }
 
@@ -152,32 +214,85 @@ public final class SortedRangeSet
         if (!isSingleValue()) {
             throw new IllegalStateException("SortedRangeSet does not have just a single value");
         }
+        if (longRanges != null) {
+            return longRanges.getSingleValue(type);
+        }
         return lowIndexedRanges.values().iterator().next().getSingleValue();
     }
 
     @Override
     public boolean containsValue(Object value)
     {
+        if (longRanges != null) {
+            requireNonNull(value, "value is null");
+            return longRanges.containsKey(SortedLongRanges.toKey(type, value));
+        }
         return includesMarker(Marker.exactly(type, value));
     }
 
+    /**
+     * Whether the set has its ranges in primitive arrays, so that {@link #containsValue(long)}
+     * can be used
+     */
+    public boolean isLongRangeSet()
+    {
+        return longRanges != null;
+    }
+
+    /**
+     * Ranges of the keys of the values, or null if the set is not a long range set
+     */
+    SortedLongRanges getLongRanges()
+    {
+        return longRanges;
+    }
+
+    /**
+     * Tests a value as stored in a block without boxing it: the value returned by {@link Type#getLong},
+     * or for DOUBLE the bits returned by {@link io.prestosql.spi.block.Block#getLong}. Only supported
+     * when {@link #isLongRangeSet()}.
+     */
+    public boolean containsValue(long value)
+    {
+        if (longRanges == null) {
+            throw new UnsupportedOperationException("Ranges of " + type + " are not kept as longs");
+        }
+        return longRanges.containsKey(SortedLongRanges.toKey(type, value));
+    }
+
     boolean includesMarker(Marker marker)
     {
         requireNonNull(marker, "marker is null");
         checkTypeCompatibility(marker);
 
-        Map.Entry<Marker, Range> floorEntry = lowIndexedRanges.floorEntry(marker);
+        Map.Entry<Marker, Range> floorEntry = getLowIndexedRanges().floorEntry(marker);
         return floorEntry != null && floorEntry.getValue().includes(marker);
     }
 
     public Range getSpan()
     {
-        if (lowIndexedRanges.isEmpty()) {
+        if (isNone()) {
             throw new IllegalStateException("Can not get span if no ranges exist");
         }
+        if (longRanges != null) {
+            return longRanges.getSpan(type);
+        }
         return lowIndexedRanges.firstEntry().getValue().span(lowIndexedRanges.lastEntry().getValue());
     }
 
+    private NavigableMap<Marker, Range> getLowIndexedRanges()
+    {
+        NavigableMap<Marker, Range> ranges = lowIndexedRanges;
+        if (ranges == null) {
+            ranges = new TreeMap<>();
+            for (Range range : longRanges.getRanges(type)) {
+                ranges.put(range.getLow(), range);
+            }
+            lowIndexedRanges = ranges;
+        }
+        return ranges;
+    }
+
     @Override
     public Ranges getRanges()
     {
@@ -226,11 +341,14 @@ public final class SortedRangeSet
     public SortedRangeSet intersect(ValueSet other)
     {
         SortedRangeSet otherRangeSet = checkCompatibility(other);
+        if (longRanges != null && otherRangeSet.longRanges != null) {
+            return new SortedRangeSet(type, longRanges.intersect(otherRangeSet.longRanges));
+        }
 
         Builder builder = new Builder(type);
 
-        Iterator<Range> iterator1 = lowIndexedRanges.values().iterator();
-        Iterator<Range> iterator2 = otherRangeSet.lowIndexedRanges.values().iterator();
+        Iterator<Range> iterator1 = getLowIndexedRanges().values().iterator();
+        Iterator<Range> iterator2 = otherRangeSet.getLowIndexedRanges().values().iterator();
 
         if (iterator1.hasNext() && iterator2.hasNext()) {
             Range range1 = iterator1.next();
@@ -263,19 +381,31 @@ public final class SortedRangeSet
     public SortedRangeSet union(ValueSet other)
     {
         SortedRangeSet otherRangeSet = checkCompatibility(other);
+        if (longRanges != null && otherRangeSet.longRanges != null) {
+            return new SortedRangeSet(type, longRanges.union(otherRangeSet.longRanges));
+        }
         return new Builder(type)
-                .addAll(this.lowIndexedRanges.values())
-                .addAll(otherRangeSet.lowIndexedRanges.values())
+                .addAll(this.getOrderedRanges())
+                .addAll(otherRangeSet.getOrderedRanges())
                 .build();
     }
 
     @Override
     public SortedRangeSet union(Collection<ValueSet> valueSets)
     {
+        if (longRanges != null) {
+            List<SortedLongRanges> rangeSets = new ArrayList<>(valueSets.size() + 1);
+            rangeSets.add(longRanges);
+            for (ValueSet valueSet : valueSets) {
+                rangeSets.add(checkCompatibility(valueSet).longRanges);
+            }
+            return new SortedRangeSet(type, SortedLongRanges.union(rangeSets));
+        }
+
         Builder builder = new Builder(type);
-        builder.addAll(this.lowIndexedRanges.values());
+        builder.addAll(this.getOrderedRanges());
         for (ValueSet valueSet : valueSets) {
-            builder.addAll(checkCompatibility(valueSet).lowIndexedRanges.values());
+            builder.addAll(checkCompatibility(valueSet).getOrderedRanges());
         }
         return builder.build();
     }
@@ -283,6 +413,10 @@ public final class SortedRangeSet
     @Override
     public SortedRangeSet complement()
     {
+        if (longRanges != null) {
+            return new SortedRangeSet(type, longRanges.complement());
+        }
+
         Builder builder = new Builder(type);
 
         if (lowIndexedRanges.isEmpty()) {
@@ -336,6 +470,9 @@ public final class SortedRangeSet
     @Override
     public int hashCode()
     {
+        if (longRanges != null) {
+            return longRanges.hashCode();
+        }
         return Objects.hash(lowIndexedRanges);
     }
 
@@ -349,13 +486,16 @@ public final class SortedRangeSet
             return false;
         }
         final SortedRangeSet other = (SortedRangeSet) obj;
+        if (this.longRanges != null || other.longRanges != null) {
+            return Objects.equals(this.type, other.type) && Objects.equals(this.longRanges, other.longRanges);
+        }
         return Objects.equals(this.lowIndexedRanges, other.lowIndexedRanges);
     }
 
     @Override
     public String toString(ConnectorSession session)
     {
-        return "[" + lowIndexedRanges.values().stream()
+        return "[" + getOrderedRanges().stream()
                 .map(range -> range.toString(session))
                 .collect(Collectors.joining(", ")) + "]";
     }
@@ -395,6 +535,10 @@ public final class SortedRangeSet
 
         SortedRangeSet build()
         {
+            if (SortedLongRanges.isSupported(type)) {
+                return new SortedRangeSet(type, SortedLongRanges.copyOf(type, ranges));
+            }
+
             Collections.sort(ranges, Comparator.comparing(Range::getLow));
 
             NavigableMap<Marker, Range> result = new TreeMap<>();
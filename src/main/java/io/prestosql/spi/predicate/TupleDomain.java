@@ -23,14 +23,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collector;
 
@@ -71,6 +68,19 @@ public final class TupleDomain<T>
         });
     }
 
+    /**
+     * Takes ownership of a map that is already normalized, that is without none or all Domains
+     */
+    private static <T> TupleDomain<T> fromNormalizedDomains(Map<T, Domain> domains)
+    {
+        return new TupleDomain<>(domains);
+    }
+
+    private TupleDomain(Map<T, Domain> normalizedDomains)
+    {
+        this.domains = Optional.of(Collections.unmodifiableMap(normalizedDomains));
+    }
+
     public static <T> TupleDomain<T> withColumnDomains(Map<T, Domain> domains)
     {
         return new TupleDomain<>(Optional.of(requireNonNull(domains, "domains is null")));
@@ -188,18 +198,35 @@ public final class TupleDomain<T>
         if (this.isNone() || other.isNone()) {
             return none();
         }
+        if (this == other || other.isAll()) {
+            return this;
+        }
+        if (this.isAll()) {
+            return other;
+        }
 
-        Map<T, Domain> intersected = new LinkedHashMap<>(this.getDomains().get());
-        for (Map.Entry<T, Domain> entry : other.getDomains().get().entrySet()) {
-            Domain intersectionDomain = intersected.get(entry.getKey());
-            if (intersectionDomain == null) {
-                intersected.put(entry.getKey(), entry.getValue());
+        // the Domains of the columns that are only in one of the TupleDomains are shared, and the
+        // map is only copied once a Domain changes
+        Map<T, Domain> thisDomains = this.domains.get();
+        Map<T, Domain> intersected = null;
+        for (Map.Entry<T, Domain> entry : other.domains.get().entrySet()) {
+            Domain thisDomain = thisDomains.get(entry.getKey());
+            Domain intersectionDomain = thisDomain == null ? entry.getValue() : thisDomain.intersect(entry.getValue());
+            if (intersectionDomain.isNone()) {
+                return none();
             }
-            else {
-                intersected.put(entry.getKey(), intersectionDomain.intersect(entry.getValue()));
+            if (intersectionDomain != thisDomain) {
+                if (intersected == null) {
+                    intersected = new LinkedHashMap<>(thisDomains);
+                }
+                intersected.put(entry.getKey(), intersectionDomain);
             }
         }
-        return withColumnDomains(intersected);
+        if (intersected == null) {
+            return this;
+        }
+        // neither a none nor an all Domain can come out of intersecting normalized Domains
+        return fromNormalizedDomains(intersected);
     }
 
     /**
@@ -261,57 +288,52 @@ public final class TupleDomain<T>
             return tupleDomains.get(0);
         }
 
-        // gather all common columns
-        Set<T> commonColumns = new HashSet<>();
-
-        // first, find a non-none domain
-        boolean found = false;
-        Iterator<TupleDomain<T>> domains = tupleDomains.iterator();
-        while (domains.hasNext()) {
-            TupleDomain<T> domain = domains.next();
-            if (!domain.isNone()) {
-                found = true;
-                commonColumns.addAll(domain.getDomains().get().keySet());
-                break;
+        // none TupleDomains do not contribute, an all TupleDomain makes the result all
+        List<Map<T, Domain>> domainMaps = new ArrayList<>(tupleDomains.size());
+        TupleDomain<T> first = null;
+        boolean allSame = true;
+        for (TupleDomain<T> tupleDomain : tupleDomains) {
+            if (tupleDomain.isNone()) {
+                continue;
+            }
+            if (tupleDomain.isAll()) {
+                return tupleDomain;
             }
+            if (first == null) {
+                first = tupleDomain;
+            }
+            allSame = allSame && (tupleDomain == first || tupleDomain.domains.get() == first.domains.get());
+            domainMaps.add(tupleDomain.domains.get());
         }
 
-        if (!found) {
+        if (first == null) {
             return TupleDomain.none();
         }
-
-        // then, get the common columns
-        while (domains.hasNext()) {
-            TupleDomain<T> domain = domains.next();
-            if (!domain.isNone()) {
-                commonColumns.retainAll(domain.getDomains().get().keySet());
-            }
+        if (allSame) {
+            return first;
         }
 
-        // group domains by column (only for common columns)
-        Map<T, List<Domain>> domainsByColumn = new LinkedHashMap<>(tupleDomains.size());
-
-        for (TupleDomain<T> domain : tupleDomains) {
-            if (!domain.isNone()) {
-                for (Map.Entry<T, Domain> entry : domain.getDomains().get().entrySet()) {
-                    if (commonColumns.contains(entry.getKey())) {
-                        List<Domain> domainForColumn = domainsByColumn.get(entry.getKey());
-                        if (domainForColumn == null) {
-                            domainForColumn = new ArrayList<>();
-                            domainsByColumn.put(entry.getKey(), domainForColumn);
-                        }
-                        domainForColumn.add(entry.getValue());
-                    }
+        // union the Domains of the columns that are common to all TupleDomains, in the order of the first one
+        Map<T, Domain> result = new LinkedHashMap<>(first.domains.get().size());
+        List<Domain> columnDomains = new ArrayList<>(domainMaps.size());
+        for (T column : first.domains.get().keySet()) {
+            columnDomains.clear();
+            for (Map<T, Domain> domainMap : domainMaps) {
+                Domain domain = domainMap.get(column);
+                if (domain == null) {
+                    break;
+                }
+                columnDomains.add(domain);
+            }
+            if (columnDomains.size() == domainMaps.size()) {
+                Domain union = Domain.union(columnDomains);
+                if (!union.isAll()) {
+                    result.put(column, union);
                 }
             }
         }
-
-        // finally, do the column-wise union
-        Map<T, Domain> result = new LinkedHashMap<>(domainsByColumn.size());
-        for (Map.Entry<T, List<Domain>> entry : domainsByColumn.entrySet()) {
-            result.put(entry.getKey(), Domain.union(entry.getValue()));
-        }
-        return withColumnDomains(result);
+        // a union of Domains that are not none is not none
+        return fromNormalizedDomains(result);
     }
 
     /**
@@ -415,6 +437,32 @@ public final class TupleDomain<T>
         return TupleDomain.withColumnDomains(simplified);
     }
 
+    /**
+     * Replaces the Domains with more than {@code threshold} ranges or values by a superset of them,
+     * see {@link Domain#simplify(int)}. Returns this TupleDomain if no Domain is over the threshold.
+     */
+    public TupleDomain<T> simplify(int threshold)
+    {
+        if (isNone()) {
+            return this;
+        }
+
+        Map<T, Domain> simplified = null;
+        for (Map.Entry<T, Domain> entry : domains.get().entrySet()) {
+            Domain domain = entry.getValue().simplify(threshold);
+            if (domain != entry.getValue()) {
+                if (simplified == null) {
+                    simplified = new LinkedHashMap<>(domains.get());
+                }
+                simplified.put(entry.getKey(), domain);
+            }
+        }
+        if (simplified == null) {
+            return this;
+        }
+        return TupleDomain.withColumnDomains(simplified);
+    }
+
     // Available for Jackson serialization only!
     public static class ColumnDomain<C>
     {
@@ -0,0 +1,483 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.predicate;
+
+import io.airlift.slice.Slice;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.Int128ArrayBlock;
+import io.prestosql.spi.block.LongArrayBlock;
+import io.prestosql.spi.block.RunLengthEncodedBlock;
+import io.prestosql.spi.type.DecimalType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarbinaryType;
+import io.prestosql.spi.type.VarcharType;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.TypeUtils.readNativeValue;
+import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.add;
+import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.compare;
+import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.subtract;
+import static java.util.Comparator.comparingInt;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Filters pages by a {@link TupleDomain} of channels. Each constrained channel is compiled into a
+ * kernel for its type and value set, which tests the block values directly instead of boxing them:
+ * <ul>
+ * <li>ranges of fixed width types by binary search over primitive arrays, and a single range of
+ * BIGINT or decimal values by a bulk kernel of the long or 128 bit array block</li>
+ * <li>ranges of VARCHAR and VARBINARY by comparing the bytes in the block</li>
+ * <li>discrete values of long types by probing a primitive hash set</li>
+ * </ul>
+ * Other value sets fall back to reading a native value per position.
+ * <p>
+ * Channels are filtered one after another, each one only testing the positions that the previous
+ * ones selected, cheapest kernels first. Blocks of channels after the last selected position are
+ * not accessed, so lazy blocks are not loaded. The position array is reused from page to page,
+ * use one filter per driver.
+ */
+@NotThreadSafe
+public class TupleDomainPageFilter
+{
+    private final boolean none;
+    private final List<ColumnFilter> columnFilters;
+    private int[] selectedPositions = new int[0];
+
+    public TupleDomainPageFilter(TupleDomain<Integer> tupleDomain)
+    {
+        requireNonNull(tupleDomain, "tupleDomain is null");
+        this.none = tupleDomain.isNone();
+
+        List<ColumnFilter> filters = new ArrayList<>();
+        if (!none) {
+            for (Map.Entry<Integer, Domain> entry : tupleDomain.getDomains().get().entrySet()) {
+                Domain domain = entry.getValue();
+                if (!domain.isAll()) {
+                    filters.add(createColumnFilter(entry.getKey(), domain));
+                }
+            }
+            filters.sort(comparingInt(ColumnFilter::getCost));
+        }
+        this.columnFilters = filters;
+    }
+
+    /**
+     * Filters the page and returns the number of selected positions, which are the first entries
+     * of {@link #getSelectedPositions()} in increasing order
+     */
+    public int filter(Page page)
+    {
+        int positionCount = page.getPositionCount();
+        if (none) {
+            return 0;
+        }
+        if (selectedPositions.length < positionCount) {
+            selectedPositions = new int[positionCount];
+        }
+        for (int i = 0; i < positionCount; i++) {
+            selectedPositions[i] = i;
+        }
+
+        int selectedCount = positionCount;
+        for (ColumnFilter columnFilter : columnFilters) {
+            if (selectedCount == 0) {
+                break;
+            }
+            Block block = page.getBlock(columnFilter.channel);
+            if (block instanceof RunLengthEncodedBlock) {
+                // one value for all positions
+                int[] single = {0};
+                if (columnFilter.filter(((RunLengthEncodedBlock) block).getValue(), single, 1) == 0) {
+                    selectedCount = 0;
+                }
+                continue;
+            }
+            selectedCount = columnFilter.filter(block, selectedPositions, selectedCount);
+        }
+        return selectedCount;
+    }
+
+    /**
+     * Positions selected by the last call to {@link #filter(Page)}. The array is reused, so it is
+     * only valid until the next call.
+     */
+    public int[] getSelectedPositions()
+    {
+        return selectedPositions;
+    }
+
+    private static ColumnFilter createColumnFilter(int channel, Domain domain)
+    {
+        Type type = domain.getType();
+        boolean nullAllowed = domain.isNullAllowed();
+        ValueSet values = domain.getValues();
+        if (values.isNone() || values.isAll()) {
+            return new NullFilter(channel, nullAllowed, values.isAll());
+        }
+        if (values instanceof SortedRangeSet && ((SortedRangeSet) values).isLongRangeSet()) {
+            return new LongRangeFilter(channel, nullAllowed, type, (SortedRangeSet) values);
+        }
+        if (values instanceof SortedRangeSet && type instanceof DecimalType && !((DecimalType) type).isShort() && ((SortedRangeSet) values).getRangeCount() == 1) {
+            return new LongDecimalRangeFilter(channel, nullAllowed, ((SortedRangeSet) values).getSpan());
+        }
+        if (values instanceof SortedRangeSet && (type instanceof VarcharType || type instanceof VarbinaryType)) {
+            return new SliceRangeFilter(channel, nullAllowed, ((SortedRangeSet) values).getOrderedRanges());
+        }
+        if (values instanceof EquatableValueSet && ((EquatableValueSet) values).isLongValueSet()) {
+            return new LongValuesFilter(channel, nullAllowed, type, (EquatableValueSet) values);
+        }
+        return new NativeValueFilter(channel, domain);
+    }
+
+    private abstract static class ColumnFilter
+    {
+        final int channel;
+        final boolean nullAllowed;
+
+        ColumnFilter(int channel, boolean nullAllowed)
+        {
+            this.channel = channel;
+            this.nullAllowed = nullAllowed;
+        }
+
+        /**
+         * Rough relative cost per position, to order the filters
+         */
+        abstract int getCost();
+
+        /**
+         * Compacts the first {@code count} positions to those passing the filter, returns their count
+         */
+        abstract int filter(Block block, int[] positions, int count);
+    }
+
+    private static class NullFilter
+            extends ColumnFilter
+    {
+        private final boolean nonNullAllowed;
+
+        NullFilter(int channel, boolean nullAllowed, boolean nonNullAllowed)
+        {
+            super(channel, nullAllowed);
+            this.nonNullAllowed = nonNullAllowed;
+        }
+
+        @Override
+        int getCost()
+        {
+            return 0;
+        }
+
+        @Override
+        int filter(Block block, int[] positions, int count)
+        {
+            if (!block.mayHaveNull()) {
+                return nonNullAllowed ? count : 0;
+            }
+            int selected = 0;
+            for (int i = 0; i < count; i++) {
+                int position = positions[i];
+                positions[selected] = position;
+                selected += (block.isNull(position) ? nullAllowed : nonNullAllowed) ? 1 : 0;
+            }
+            return selected;
+        }
+    }
+
+    private static class LongRangeFilter
+            extends ColumnFilter
+    {
+        private final Type type;
+        private final boolean isDouble;
+        private final SortedRangeSet ranges;
+        // inclusive bounds of a single range of keys that equal the values
+        private final boolean singleRange;
+        private final long low;
+        private final long high;
+
+        LongRangeFilter(int channel, boolean nullAllowed, Type type, SortedRangeSet ranges)
+        {
+            super(channel, nullAllowed);
+            this.type = type;
+            this.isDouble = type.equals(DOUBLE);
+            this.ranges = ranges;
+            SortedLongRanges longRanges = ranges.getLongRanges();
+            // a range above the greatest or below the least value has no inclusive bounds, it is left to containsValue
+            this.singleRange = !isDouble && longRanges.getRangeCount() == 1 && longRanges.hasInclusiveBounds(0);
+            this.low = singleRange ? longRanges.getInclusiveLow(0) : 0;
+            this.high = singleRange ? longRanges.getInclusiveHigh(0) : 0;
+        }
+
+        @Override
+        int getCost()
+        {
+            return 1;
+        }
+
+        @Override
+        int filter(Block block, int[] positions, int count)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            if (singleRange && block instanceof LongArrayBlock && !(nullAllowed && mayHaveNull)) {
+                return ((LongArrayBlock) block).filterRange(positions, count, positions, low, high);
+            }
+            int selected = 0;
+            for (int i = 0; i < count; i++) {
+                int position = positions[i];
+                boolean matches;
+                if (mayHaveNull && block.isNull(position)) {
+                    matches = nullAllowed;
+                }
+                else {
+                    long value = isDouble ? block.getLong(position, 0) : type.getLong(block, position);
+                    matches = ranges.containsValue(value);
+                }
+                positions[selected] = position;
+                selected += matches ? 1 : 0;
+            }
+            return selected;
+        }
+    }
+
+    private static class LongValuesFilter
+            extends ColumnFilter
+    {
+        private final Type type;
+        private final EquatableValueSet values;
+
+        LongValuesFilter(int channel, boolean nullAllowed, Type type, EquatableValueSet values)
+        {
+            super(channel, nullAllowed);
+            this.type = type;
+            this.values = values;
+        }
+
+        @Override
+        int getCost()
+        {
+            return 1;
+        }
+
+        @Override
+        int filter(Block block, int[] positions, int count)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            int selected = 0;
+            for (int i = 0; i < count; i++) {
+                int position = positions[i];
+                boolean matches = mayHaveNull && block.isNull(position) ? nullAllowed : values.containsLong(type.getLong(block, position));
+                positions[selected] = position;
+                selected += matches ? 1 : 0;
+            }
+            return selected;
+        }
+    }
+
+    /**
+     * A single range of long decimals, with its bounds made inclusive
+     */
+    private static class LongDecimalRangeFilter
+            extends ColumnFilter
+    {
+        private final long[] bounds = new long[4];
+
+        LongDecimalRangeFilter(int channel, boolean nullAllowed, Range range)
+        {
+            super(channel, nullAllowed);
+            // unbounded ends are the least and greatest 128 bit values
+            if (range.getLow().isLowerUnbounded()) {
+                bounds[0] = -1L;
+                bounds[1] = -1L;
+            }
+            else {
+                Slice low = (Slice) range.getLow().getValue();
+                bounds[0] = low.getLong(0);
+                bounds[1] = low.getLong(Long.BYTES);
+                if (range.getLow().getBound() == Marker.Bound.ABOVE) {
+                    add(bounds[0], bounds[1], 1, 0, bounds, 0);
+                }
+            }
+            if (range.getHigh().isUpperUnbounded()) {
+                bounds[2] = -1L;
+                bounds[3] = Long.MAX_VALUE;
+            }
+            else {
+                Slice high = (Slice) range.getHigh().getValue();
+                bounds[2] = high.getLong(0);
+                bounds[3] = high.getLong(Long.BYTES);
+                if (range.getHigh().getBound() == Marker.Bound.BELOW) {
+                    subtract(bounds[2], bounds[3], 1, 0, bounds, 2);
+                }
+            }
+        }
+
+        @Override
+        int getCost()
+        {
+            return 1;
+        }
+
+        @Override
+        int filter(Block block, int[] positions, int count)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            if (block instanceof Int128ArrayBlock && !(nullAllowed && mayHaveNull)) {
+                return ((Int128ArrayBlock) block).filterDecimalRange(positions, count, positions, bounds[0], bounds[1], bounds[2], bounds[3]);
+            }
+            int selected = 0;
+            for (int i = 0; i < count; i++) {
+                int position = positions[i];
+                boolean matches;
+                if (mayHaveNull && block.isNull(position)) {
+                    matches = nullAllowed;
+                }
+                else {
+                    long rawLow = block.getLong(position, 0);
+                    long rawHigh = block.getLong(position, Long.BYTES);
+                    matches = compare(rawLow, rawHigh, bounds[0], bounds[1]) >= 0 && compare(rawLow, rawHigh, bounds[2], bounds[3]) <= 0;
+                }
+                positions[selected] = position;
+                selected += matches ? 1 : 0;
+            }
+            return selected;
+        }
+    }
+
+    /**
+     * Sorted ranges of byte strings, compared with the bytes of the block without creating slices
+     */
+    private static class SliceRangeFilter
+            extends ColumnFilter
+    {
+        private final Slice[] lows;
+        private final boolean[] lowInclusive;
+        private final Slice[] highs;
+        private final boolean[] highInclusive;
+
+        SliceRangeFilter(int channel, boolean nullAllowed, List<Range> ranges)
+        {
+            super(channel, nullAllowed);
+            int rangeCount = ranges.size();
+            lows = new Slice[rangeCount];
+            lowInclusive = new boolean[rangeCount];
+            highs = new Slice[rangeCount];
+            highInclusive = new boolean[rangeCount];
+            for (int i = 0; i < rangeCount; i++) {
+                // unbounded ends are left null
+                Range range = ranges.get(i);
+                if (!range.getLow().isLowerUnbounded()) {
+                    lows[i] = (Slice) range.getLow().getValue();
+                    lowInclusive[i] = range.getLow().getBound() == Marker.Bound.EXACTLY;
+                }
+                if (!range.getHigh().isUpperUnbounded()) {
+                    highs[i] = (Slice) range.getHigh().getValue();
+                    highInclusive[i] = range.getHigh().getBound() == Marker.Bound.EXACTLY;
+                }
+            }
+        }
+
+        @Override
+        int getCost()
+        {
+            return 2;
+        }
+
+        @Override
+        int filter(Block block, int[] positions, int count)
+        {
+            boolean mayHaveNull = block.mayHaveNull();
+            int selected = 0;
+            for (int i = 0; i < count; i++) {
+                int position = positions[i];
+                boolean matches = mayHaveNull && block.isNull(position) ? nullAllowed : contains(block, position);
+                positions[selected] = position;
+                selected += matches ? 1 : 0;
+            }
+            return selected;
+        }
+
+        private boolean contains(Block block, int position)
+        {
+            int length = block.getSliceLength(position);
+
+            // the last range whose low is at or below the value
+            int low = 0;
+            int high = lows.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (lows[middle] == null || compare(block, position, length, lows[middle]) >= 0) {
+                    low = middle + 1;
+                }
+                else {
+                    high = middle - 1;
+                }
+            }
+            int index = high;
+            if (index < 0) {
+                return false;
+            }
+            if (lows[index] != null && !lowInclusive[index] && compare(block, position, length, lows[index]) == 0) {
+                return false;
+            }
+            if (highs[index] == null) {
+                return true;
+            }
+            int comparison = compare(block, position, length, highs[index]);
+            return comparison < 0 || (comparison == 0 && highInclusive[index]);
+        }
+
+        private static int compare(Block block, int position, int length, Slice value)
+        {
+            return block.bytesCompare(position, 0, length, value, 0, value.length());
+        }
+    }
+
+    private static class NativeValueFilter
+            extends ColumnFilter
+    {
+        private final Domain domain;
+
+        NativeValueFilter(int channel, Domain domain)
+        {
+            super(channel, domain.isNullAllowed());
+            this.domain = domain;
+        }
+
+        @Override
+        int getCost()
+        {
+            return 3;
+        }
+
+        @Override
+        int filter(Block block, int[] positions, int count)
+        {
+            Type type = domain.getType();
+            int selected = 0;
+            for (int i = 0; i < count; i++) {
+                int position = positions[i];
+                positions[selected] = position;
+                selected += domain.includesNullableValue(readNativeValue(type, block, position)) ? 1 : 0;
+            }
+            return selected;
+        }
+    }
+}
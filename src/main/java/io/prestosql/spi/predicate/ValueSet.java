@@ -20,8 +20,6 @@ import io.prestosql.spi.type.Type;
 
 import java.util.Collection;
 
-import static java.util.stream.Collectors.toList;
-
 @JsonTypeInfo(
         use = JsonTypeInfo.Id.NAME,
         include = JsonTypeInfo.As.PROPERTY,
@@ -68,9 +66,7 @@ public interface ValueSet
     static ValueSet copyOf(Type type, Collection<Object> values)
     {
         if (type.isOrderable()) {
-            return SortedRangeSet.copyOf(type, values.stream()
-                    .map(value -> Range.equal(type, value))
-                    .collect(toList()));
+            return SortedRangeSet.copyOfValues(type, values);
         }
         if (type.isComparable()) {
             return EquatableValueSet.copyOf(type, values);
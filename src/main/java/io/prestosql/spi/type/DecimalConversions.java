@@ -14,6 +14,7 @@
 package io.prestosql.spi.type;
 
 import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
 import io.prestosql.spi.PrestoException;
 
 import java.math.BigDecimal;
@@ -241,6 +242,32 @@ public final class DecimalConversions
         }
     }
 
+    /**
+     * Casts the long decimal given by its raw (low, high) longs and stores the raw longs of the result
+     * at {@code result[resultOffset]} and {@code result[resultOffset + 1]}, so that casting a block of
+     * values does not allocate a slice per value
+     */
+    public static void longToLongCast(
+            long rawLow,
+            long rawHigh,
+            long sourcePrecision,
+            long sourceScale,
+            long resultPrecision,
+            long resultScale,
+            long[] result,
+            int resultOffset)
+    {
+        try {
+            UnscaledDecimal128Arithmetic.rescale(rawLow, rawHigh, (int) (resultScale - sourceScale), result, resultOffset);
+            if (UnscaledDecimal128Arithmetic.overflows(result[resultOffset], result[resultOffset + 1], (int) resultPrecision)) {
+                throw throwCastException(unscaledDecimalToBigInteger(Slices.wrappedLongArray(rawLow, rawHigh)), sourcePrecision, sourceScale, resultPrecision, resultScale);
+            }
+        }
+        catch (ArithmeticException e) {
+            throw throwCastException(unscaledDecimalToBigInteger(Slices.wrappedLongArray(rawLow, rawHigh)), sourcePrecision, sourceScale, resultPrecision, resultScale);
+        }
+    }
+
     private static PrestoException throwCastException(long value, long sourcePrecision, long sourceScale, long resultPrecision, long resultScale)
     {
         return new PrestoException(INVALID_CAST_ARGUMENT,
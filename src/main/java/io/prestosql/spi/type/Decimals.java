@@ -14,6 +14,7 @@
 package io.prestosql.spi.type;
 
 import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
@@ -24,18 +25,26 @@ import java.math.MathContext;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
 import static io.prestosql.spi.StandardErrorCode.NUMERIC_VALUE_OUT_OF_RANGE;
 import static io.prestosql.spi.type.DecimalType.createDecimalType;
-import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.toUnscaledString;
+import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.add;
+import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.getLong;
+import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.isStrictlyNegative;
+import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.multiply;
+import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.pack;
 import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.unscaledDecimal;
 import static io.prestosql.spi.type.UnscaledDecimal128Arithmetic.unscaledDecimalToBigInteger;
 import static java.lang.Math.abs;
 import static java.lang.Math.pow;
 import static java.lang.Math.round;
 import static java.lang.String.format;
+import static java.lang.System.arraycopy;
 import static java.math.BigInteger.TEN;
 import static java.math.RoundingMode.HALF_UP;
 import static java.math.RoundingMode.UNNECESSARY;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Arrays.fill;
 
 public final class Decimals
 {
@@ -49,10 +58,19 @@ public final class Decimals
             new String(new char[MAX_PRECISION]).replace("\0", "9"));
     public static final BigInteger MIN_DECIMAL_UNSCALED_VALUE = MAX_DECIMAL_UNSCALED_VALUE.negate();
 
+    /**
+     * Longest result of {@link #writeAscii(long, long, int, byte[], int)}: a sign, a leading zero, a
+     * decimal point and 38 digits, or a sign, 39 digits of the largest unscaled value and a point
+     */
+    public static final int MAX_FORMATTED_LENGTH = MAX_PRECISION + 3;
+
     private static final Pattern DECIMAL_PATTERN = Pattern.compile("(\\+?|-?)((0*)(\\d*))(\\.(\\d*))?");
 
     private static final int LONG_POWERS_OF_TEN_TABLE_LENGTH = 19;
     private static final int BIG_INTEGER_POWERS_OF_TEN_TABLE_LENGTH = 100;
+    private static final int MAX_PARSED_CHUNK_DIGITS = 18;
+    private static final long FORMATTED_CHUNK_DIVISOR = 1_000_000_000L;
+    private static final int FORMATTED_CHUNK_DIGITS = 9;
     private static final long[] LONG_POWERS_OF_TEN = new long[LONG_POWERS_OF_TEN_TABLE_LENGTH];
     private static final BigInteger[] BIG_INTEGER_POWERS_OF_TEN = new BigInteger[BIG_INTEGER_POWERS_OF_TEN_TABLE_LENGTH];
 
@@ -90,6 +108,29 @@ public final class Decimals
 
     private static DecimalParseResult parse(String stringValue, boolean includeLeadingZerosInPrecision)
     {
+        long[] unscaled = new long[2];
+        int fractionDigits = parseUnscaled(stringValue, unscaled, 0);
+        if (fractionDigits >= 0) {
+            int start = (stringValue.charAt(0) == '-' || stringValue.charAt(0) == '+') ? 1 : 0;
+            int integralEnd = (fractionDigits == 0 && stringValue.charAt(stringValue.length() - 1) != '.') ? stringValue.length() : stringValue.length() - fractionDigits - 1;
+            int leadingZeros = 0;
+            while (start + leadingZeros < integralEnd && stringValue.charAt(start + leadingZeros) == '0') {
+                leadingZeros++;
+            }
+            int precision = integralEnd - start + fractionDigits;
+            if (!includeLeadingZerosInPrecision) {
+                precision = Math.max(precision - leadingZeros, 1);
+            }
+            if (precision <= MAX_SHORT_PRECISION) {
+                long value = unscaled[0];
+                return new DecimalParseResult(isStrictlyNegative(unscaled[0], unscaled[1]) ? -value : value, createDecimalType(precision, fractionDigits));
+            }
+            if (precision <= MAX_PRECISION) {
+                return new DecimalParseResult(Slices.wrappedLongArray(unscaled), createDecimalType(precision, fractionDigits));
+            }
+        }
+
+        // not a plain decimal, or too long, report it as before
         Matcher matcher = DECIMAL_PATTERN.matcher(stringValue);
         if (!matcher.matches()) {
             throw new IllegalArgumentException("Invalid decimal value '" + stringValue + "'");
@@ -130,6 +171,115 @@ public final class Decimals
         return new DecimalParseResult(value, createDecimalType(precision, scale));
     }
 
+    /**
+     * Parses a plain decimal, an optional sign and digits with an optional decimal point such as
+     * {@code -123.45}, into the raw (low, high) longs of its unscaled value at {@code result[resultOffset]}
+     * and {@code result[resultOffset + 1]}. Returns the scale, the number of digits after the point,
+     * or -1 if the value has another form or more than 38 digits without the leading zeros.
+     */
+    public static int parseUnscaled(CharSequence value, long[] result, int resultOffset)
+    {
+        int length = value.length();
+        int start = (length > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) ? 1 : 0;
+        pack(0, 0, false, result, resultOffset);
+        int point = -1;
+        int digits = 0;
+        int significantDigits = 0;
+        long chunk = 0;
+        int chunkDigits = 0;
+        for (int i = start; i < length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit >= 0 && digit <= 9) {
+                digits++;
+                if (significantDigits > 0 || digit != 0) {
+                    significantDigits++;
+                    chunk = chunk * 10 + digit;
+                    chunkDigits++;
+                    if (chunkDigits == MAX_PARSED_CHUNK_DIGITS) {
+                        if (significantDigits > MAX_PRECISION) {
+                            // the digits would overflow the 128 bit value
+                            return -1;
+                        }
+                        appendDigits(chunk, chunkDigits, result, resultOffset);
+                        chunk = 0;
+                        chunkDigits = 0;
+                    }
+                }
+            }
+            else if (value.charAt(i) == '.' && point < 0) {
+                point = i;
+            }
+            else {
+                return -1;
+            }
+        }
+        return finishParse(start > 0 && value.charAt(0) == '-', point < 0 ? 0 : length - point - 1, digits, significantDigits, chunk, chunkDigits, result, resultOffset);
+    }
+
+    /**
+     * Same as {@link #parseUnscaled(CharSequence, long[], int)} for the {@code length} UTF-8 bytes at {@code offset}
+     */
+    public static int parseUnscaled(Slice utf8, int offset, int length, long[] result, int resultOffset)
+    {
+        int end = offset + length;
+        int start = (length > 0 && (utf8.getByte(offset) == '-' || utf8.getByte(offset) == '+')) ? offset + 1 : offset;
+        pack(0, 0, false, result, resultOffset);
+        int point = -1;
+        int digits = 0;
+        int significantDigits = 0;
+        long chunk = 0;
+        int chunkDigits = 0;
+        for (int i = start; i < end; i++) {
+            int digit = utf8.getByte(i) - '0';
+            if (digit >= 0 && digit <= 9) {
+                digits++;
+                if (significantDigits > 0 || digit != 0) {
+                    significantDigits++;
+                    chunk = chunk * 10 + digit;
+                    chunkDigits++;
+                    if (chunkDigits == MAX_PARSED_CHUNK_DIGITS) {
+                        if (significantDigits > MAX_PRECISION) {
+                            // the digits would overflow the 128 bit value
+                            return -1;
+                        }
+                        appendDigits(chunk, chunkDigits, result, resultOffset);
+                        chunk = 0;
+                        chunkDigits = 0;
+                    }
+                }
+            }
+            else if (utf8.getByte(i) == '.' && point < 0) {
+                point = i;
+            }
+            else {
+                return -1;
+            }
+        }
+        return finishParse(start > offset && utf8.getByte(offset) == '-', point < 0 ? 0 : end - point - 1, digits, significantDigits, chunk, chunkDigits, result, resultOffset);
+    }
+
+    private static int finishParse(boolean negative, int scale, int digits, int significantDigits, long chunk, int chunkDigits, long[] result, int resultOffset)
+    {
+        if (digits == 0 || significantDigits > MAX_PRECISION) {
+            return -1;
+        }
+        appendDigits(chunk, chunkDigits, result, resultOffset);
+        if (negative && (result[resultOffset] != 0 || result[resultOffset + 1] != 0)) {
+            pack(result[resultOffset], result[resultOffset + 1], true, result, resultOffset);
+        }
+        return scale;
+    }
+
+    private static void appendDigits(long chunk, int chunkDigits, long[] result, int resultOffset)
+    {
+        if (result[resultOffset] == 0 && result[resultOffset + 1] == 0) {
+            result[resultOffset] = chunk;
+            return;
+        }
+        multiply(result[resultOffset], result[resultOffset + 1], longTenToNth(chunkDigits), 0, result, resultOffset);
+        add(result[resultOffset], result[resultOffset + 1], chunk, 0, result, resultOffset);
+    }
+
     private static String getMatcherGroup(Matcher matcher, int group)
     {
         String groupValue = matcher.group(group);
@@ -183,12 +333,20 @@ public final class Decimals
 
     public static String toString(long unscaledValue, int scale)
     {
-        return toString(Long.toString(unscaledValue), scale);
+        if (scale < 0 || scale > MAX_PRECISION) {
+            return toString(Long.toString(unscaledValue), scale);
+        }
+        byte[] buffer = new byte[MAX_FORMATTED_LENGTH];
+        return new String(buffer, 0, writeAscii(unscaledValue, scale, buffer, 0), US_ASCII);
     }
 
     public static String toString(Slice unscaledValue, int scale)
     {
-        return toString(toUnscaledString(unscaledValue), scale);
+        if (scale < 0 || scale > MAX_PRECISION) {
+            return toString(UnscaledDecimal128Arithmetic.toUnscaledString(unscaledValue), scale);
+        }
+        byte[] buffer = new byte[MAX_FORMATTED_LENGTH];
+        return new String(buffer, 0, writeAscii(unscaledValue.getLong(0), unscaledValue.getLong(SIZE_OF_LONG), scale, buffer, 0), US_ASCII);
     }
 
     public static String toString(BigInteger unscaledValue, int scale)
@@ -196,6 +354,73 @@ public final class Decimals
         return toString(unscaledValue.toString(), scale);
     }
 
+    /**
+     * Writes the decimal as ASCII characters, such as {@code -123.45}, at {@code offset} in the buffer
+     * and returns the number of bytes written. The scale must be between 0 and 38, and the buffer must
+     * have room for {@link #MAX_FORMATTED_LENGTH} bytes from the offset.
+     */
+    public static int writeAscii(long unscaledValue, int scale, byte[] buffer, int offset)
+    {
+        // the magnitude of Long.MIN_VALUE is its unsigned value
+        return writeAscii(abs(unscaledValue), unscaledValue < 0 ? Long.MIN_VALUE : 0, scale, buffer, offset);
+    }
+
+    /**
+     * Same as {@link #writeAscii(long, int, byte[], int)} for an unscaled value given by its raw (low, high) longs
+     */
+    public static int writeAscii(long rawLow, long rawHigh, int scale, byte[] buffer, int offset)
+    {
+        checkArgument(scale >= 0 && scale <= MAX_PRECISION);
+        boolean negative = isStrictlyNegative(rawLow, rawHigh);
+
+        // write the digits right aligned, then move them in place around the decimal point
+        int end = offset + MAX_FORMATTED_LENGTH;
+        int position = end;
+        long low = rawLow;
+        long high = rawHigh & Long.MAX_VALUE;
+        while (high != 0 || low < 0) {
+            // divide by 10^9, 32 bits at a time
+            long remainder = high % FORMATTED_CHUNK_DIVISOR;
+            high /= FORMATTED_CHUNK_DIVISOR;
+            long middle = (remainder << 32) | (low >>> 32);
+            remainder = middle % FORMATTED_CHUNK_DIVISOR;
+            long lowest = (remainder << 32) | (low & 0xFFFF_FFFFL);
+            low = ((middle / FORMATTED_CHUNK_DIVISOR) << 32) | (lowest / FORMATTED_CHUNK_DIVISOR);
+            int chunk = (int) (lowest % FORMATTED_CHUNK_DIVISOR);
+            for (int i = 0; i < FORMATTED_CHUNK_DIGITS; i++) {
+                buffer[--position] = (byte) ('0' + chunk % 10);
+                chunk /= 10;
+            }
+        }
+        do {
+            buffer[--position] = (byte) ('0' + low % 10);
+            low /= 10;
+        }
+        while (low != 0);
+
+        int digits = end - position;
+        int fractionDigits = Math.min(digits, scale);
+        int index = offset;
+        if (negative) {
+            buffer[index++] = '-';
+        }
+        if (digits > scale) {
+            arraycopy(buffer, position, buffer, index, digits - scale);
+            index += digits - scale;
+        }
+        else {
+            buffer[index++] = '0';
+        }
+        if (scale > 0) {
+            buffer[index++] = '.';
+            fill(buffer, index, index + scale - fractionDigits, (byte) '0');
+            index += scale - fractionDigits;
+            arraycopy(buffer, end - fractionDigits, buffer, index, fractionDigits);
+            index += fractionDigits;
+        }
+        return index - offset;
+    }
+
     private static String toString(String unscaledValueString, int scale)
     {
         StringBuilder resultBuilder = new StringBuilder();
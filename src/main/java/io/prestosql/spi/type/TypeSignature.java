@@ -15,6 +15,8 @@ package io.prestosql.spi.type;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonValue;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -37,6 +39,12 @@ public class TypeSignature
     private final List<TypeSignatureParameter> parameters;
     private final boolean calculated;
 
+    // signatures are immutable, so parsed ones are shared
+    private static final long MAX_CACHED_SIGNATURES = 10_000;
+    private static final Cache<String, TypeSignature> CACHED_SIGNATURES = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_SIGNATURES)
+            .build();
+
     private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[a-zA-Z_]([a-zA-Z0-9_:@])*");
     private static final Set<String> SIMPLE_TYPE_WITH_SPACES =
             new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
@@ -94,10 +102,22 @@ public class TypeSignature
         return calculated;
     }
 
+    /**
+     * Parses a type signature. Results are cached by signature string, so parsing the same string
+     * again returns the same instance.
+     */
     @JsonCreator
     public static TypeSignature parseTypeSignature(String signature)
     {
-        return parseTypeSignature(signature, new HashSet<>());
+        TypeSignature typeSignature = CACHED_SIGNATURES.getIfPresent(signature);
+        if (typeSignature == null) {
+            typeSignature = parseTypeSignature(signature, new HashSet<>());
+            TypeSignature existing = CACHED_SIGNATURES.asMap().putIfAbsent(signature, typeSignature);
+            if (existing != null) {
+                typeSignature = existing;
+            }
+        }
+        return typeSignature;
     }
 
     public static TypeSignature parseTypeSignature(String signature, Set<String> literalCalculationParameters)
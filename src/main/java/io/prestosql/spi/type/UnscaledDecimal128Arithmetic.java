@@ -18,6 +18,8 @@ import io.airlift.slice.Slices;
 import io.airlift.slice.XxHash64;
 import sun.misc.Unsafe;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.math.BigInteger;
 import java.nio.ByteOrder;
@@ -29,6 +31,7 @@ import static io.prestosql.spi.type.Decimals.longTenToNth;
 import static java.lang.Integer.toUnsignedLong;
 import static java.lang.String.format;
 import static java.lang.System.arraycopy;
+import static java.lang.invoke.MethodType.methodType;
 import static java.util.Arrays.fill;
 
 /**
@@ -51,6 +54,8 @@ public final class UnscaledDecimal128Arithmetic
 
     private static final Slice[] POWERS_OF_TEN = new Slice[MAX_PRECISION];
     private static final Slice[] POWERS_OF_FIVE = new Slice[MAX_PRECISION];
+    private static final long[] POWERS_OF_TEN_LOW = new long[MAX_PRECISION];
+    private static final long[] POWERS_OF_TEN_HIGH = new long[MAX_PRECISION];
 
     private static final int SIGN_LONG_INDEX = 1;
     private static final int SIGN_INT_INDEX = 3;
@@ -85,6 +90,12 @@ public final class UnscaledDecimal128Arithmetic
      */
     private static final int[] POWERS_OF_TEN_INT = new int[MAX_POWER_OF_TEN_INT + 1];
 
+    /**
+     * Math.multiplyHigh of Java 9 and later, which the JIT compiles to a single instruction. Null
+     * on Java 8, where the high bits are computed from 32 bit halves instead.
+     */
+    private static final MethodHandle MULTIPLY_HIGH = multiplyHighMethodHandle();
+
     private static final Unsafe unsafe;
 
     static {
@@ -106,6 +117,8 @@ public final class UnscaledDecimal128Arithmetic
         }
         for (int i = 0; i < POWERS_OF_TEN.length; ++i) {
             POWERS_OF_TEN[i] = unscaledDecimal(BigInteger.TEN.pow(i));
+            POWERS_OF_TEN_LOW[i] = getLong(POWERS_OF_TEN[i], 0);
+            POWERS_OF_TEN_HIGH[i] = getLong(POWERS_OF_TEN[i], 1);
         }
 
         POWERS_OF_FIVES_INT[0] = 1;
@@ -189,6 +202,18 @@ public final class UnscaledDecimal128Arithmetic
         return new BigInteger(isNegative(decimal) ? -1 : 1, bytes);
     }
 
+    public static BigInteger unscaledDecimalToBigInteger(long rawLow, long rawHigh)
+    {
+        // big-endian magnitude
+        byte[] bytes = new byte[UNSCALED_DECIMAL_128_SLICE_LENGTH];
+        long high = unpackUnsignedLong(rawHigh);
+        for (int i = 0; i < SIZE_OF_LONG; i++) {
+            bytes[SIZE_OF_LONG - 1 - i] = (byte) (high >>> (8 * i));
+            bytes[UNSCALED_DECIMAL_128_SLICE_LENGTH - 1 - i] = (byte) (rawLow >>> (8 * i));
+        }
+        return new BigInteger(isNegative(rawLow, rawHigh) ? -1 : 1, bytes);
+    }
+
     public static long unscaledDecimalToUnscaledLong(Slice decimal)
     {
         long low = getLong(decimal, 0);
@@ -236,6 +261,15 @@ public final class UnscaledDecimal128Arithmetic
         }
     }
 
+    /**
+     * Rescales the decimal given by its raw (low, high) longs and stores the raw longs of the result
+     * at {@code result[resultOffset]} and {@code result[resultOffset + 1]}, without allocating
+     */
+    public static void rescale(long rawLow, long rawHigh, int rescaleFactor, long[] result, int resultOffset)
+    {
+        rescale(rawLow, rawHigh, rescaleFactor, true, result, resultOffset);
+    }
+
     public static Slice rescaleTruncate(Slice decimal, int rescaleFactor)
     {
         if (rescaleFactor == 0) {
@@ -264,6 +298,67 @@ public final class UnscaledDecimal128Arithmetic
         }
     }
 
+    public static void rescaleTruncate(long rawLow, long rawHigh, int rescaleFactor, long[] result, int resultOffset)
+    {
+        rescale(rawLow, rawHigh, rescaleFactor, false, result, resultOffset);
+    }
+
+    private static void rescale(long rawLow, long rawHigh, int rescaleFactor, boolean roundUp, long[] result, int resultOffset)
+    {
+        if (rescaleFactor == 0) {
+            result[resultOffset] = rawLow;
+            result[resultOffset + 1] = rawHigh;
+        }
+        else if (rescaleFactor > 0) {
+            if (rescaleFactor >= MAX_PRECISION) {
+                throwOverflowException();
+            }
+            multiply(rawLow, rawHigh, POWERS_OF_TEN_LOW[rescaleFactor], POWERS_OF_TEN_HIGH[rescaleFactor], result, resultOffset);
+        }
+        else {
+            scaleDown(rawLow, unpackUnsignedLong(rawHigh), isNegative(rawLow, rawHigh), -rescaleFactor, roundUp, result, resultOffset);
+        }
+    }
+
+    private static void scaleDown(long low, long high, boolean negative, int scaleFactor, boolean roundUp, long[] result, int resultOffset)
+    {
+        // optimized path for smaller values
+        if (scaleFactor <= MAX_POWER_OF_TEN_LONG && high == 0 && low >= 0) {
+            long divisor = longTenToNth(scaleFactor);
+            long newLow = low / divisor;
+            if (roundUp && low % divisor >= (divisor >> 1)) {
+                newLow++;
+            }
+            pack(newLow, 0, negative, result, resultOffset);
+            return;
+        }
+
+        // divide by powers of ten that fit in an int, 32 bits at a time. Rounding only depends on the
+        // remainder of the last division: the earlier remainders are below one unit of it.
+        long remainder = 0;
+        long divisor = 1;
+        while (scaleFactor > 0) {
+            int power = Math.min(scaleFactor, MAX_POWER_OF_TEN_INT);
+            scaleFactor -= power;
+            divisor = POWERS_OF_TEN_INT[power];
+
+            remainder = high % divisor;
+            high /= divisor;
+            long middle = (remainder << 32) | (low >>> 32);
+            remainder = middle % divisor;
+            long lowest = (remainder << 32) | (low & LOW_32_BITS);
+            remainder = lowest % divisor;
+            low = ((middle / divisor) << 32) | (lowest / divisor);
+        }
+        if (roundUp && remainder >= (divisor >> 1)) {
+            low++;
+            if (low == 0) {
+                high++;
+            }
+        }
+        pack(low, high, negative, result, resultOffset);
+    }
+
     private static void scaleDownTruncate(Slice decimal, int scaleFactor, Slice result)
     {
         // optimized path for smaller values
@@ -336,6 +431,43 @@ public final class UnscaledDecimal128Arithmetic
         return overflow;
     }
 
+    /**
+     * Adds decimals given by their raw (low, high) longs and stores the raw longs of the sum at
+     * {@code result[resultOffset]} and {@code result[resultOffset + 1]}, without allocating
+     */
+    public static void add(long leftRawLow, long leftRawHigh, long rightRawLow, long rightRawHigh, long[] result, int resultOffset)
+    {
+        if (addWithOverflow(leftRawLow, leftRawHigh, rightRawLow, rightRawHigh, result, resultOffset) != 0) {
+            throwOverflowException();
+        }
+    }
+
+    /**
+     * Same as {@link #addWithOverflow(Slice, Slice, Slice)} for decimals given by their raw (low, high) longs
+     */
+    public static long addWithOverflow(long leftRawLow, long leftRawHigh, long rightRawLow, long rightRawHigh, long[] result, int resultOffset)
+    {
+        boolean leftNegative = isNegative(leftRawLow, leftRawHigh);
+        boolean rightNegative = isNegative(rightRawLow, rightRawHigh);
+        long leftHigh = unpackUnsignedLong(leftRawHigh);
+        long rightHigh = unpackUnsignedLong(rightRawHigh);
+        if (leftNegative == rightNegative) {
+            long overflow = addUnsignedReturnOverflow(leftRawLow, leftHigh, rightRawLow, rightHigh, leftNegative, result, resultOffset);
+            return leftNegative ? -overflow : overflow;
+        }
+        int compare = compareUnsigned(leftRawLow, leftHigh, rightRawLow, rightHigh);
+        if (compare > 0) {
+            subtractUnsigned(leftRawLow, leftHigh, rightRawLow, rightHigh, leftNegative, result, resultOffset);
+        }
+        else if (compare < 0) {
+            subtractUnsigned(rightRawLow, rightHigh, leftRawLow, leftHigh, !leftNegative, result, resultOffset);
+        }
+        else {
+            pack(0, 0, false, result, resultOffset);
+        }
+        return 0;
+    }
+
     public static Slice subtract(Slice left, Slice right)
     {
         Slice result = unscaledDecimal();
@@ -365,6 +497,30 @@ public final class UnscaledDecimal128Arithmetic
         }
     }
 
+    public static void subtract(long leftRawLow, long leftRawHigh, long rightRawLow, long rightRawHigh, long[] result, int resultOffset)
+    {
+        boolean leftNegative = isNegative(leftRawLow, leftRawHigh);
+        long leftHigh = unpackUnsignedLong(leftRawHigh);
+        long rightHigh = unpackUnsignedLong(rightRawHigh);
+        if (leftNegative != isNegative(rightRawLow, rightRawHigh)) {
+            // only one is negative
+            if (addUnsignedReturnOverflow(leftRawLow, leftHigh, rightRawLow, rightHigh, leftNegative, result, resultOffset) != 0) {
+                throwOverflowException();
+            }
+            return;
+        }
+        int compare = compareUnsigned(leftRawLow, leftHigh, rightRawLow, rightHigh);
+        if (compare > 0) {
+            subtractUnsigned(leftRawLow, leftHigh, rightRawLow, rightHigh, leftNegative, result, resultOffset);
+        }
+        else if (compare < 0) {
+            subtractUnsigned(rightRawLow, rightHigh, leftRawLow, leftHigh, !leftNegative, result, resultOffset);
+        }
+        else {
+            pack(0, 0, false, result, resultOffset);
+        }
+    }
+
     /**
      * This method ignores signs of the left and right. Returns overflow value.
      */
@@ -443,6 +599,27 @@ public final class UnscaledDecimal128Arithmetic
         }
     }
 
+    /**
+     * Adds the unsigned 127 bit values and returns the overflow
+     */
+    private static long addUnsignedReturnOverflow(long leftLow, long leftHigh, long rightLow, long rightHigh, boolean resultNegative, long[] result, int resultOffset)
+    {
+        long low = leftLow + rightLow;
+        long high = leftHigh + rightHigh + (Long.compareUnsigned(low, leftLow) < 0 ? 1 : 0);
+        pack(low, high & ~SIGN_LONG_MASK, resultNegative, result, resultOffset);
+        return high >>> 63;
+    }
+
+    /**
+     * Subtracts the unsigned 127 bit values, left must be greater than right
+     */
+    private static void subtractUnsigned(long leftLow, long leftHigh, long rightLow, long rightHigh, boolean resultNegative, long[] result, int resultOffset)
+    {
+        long low = leftLow - rightLow;
+        long high = leftHigh - rightHigh - (Long.compareUnsigned(leftLow, rightLow) < 0 ? 1 : 0);
+        pack(low, high, resultNegative, result, resultOffset);
+    }
+
     public static Slice multiply(Slice left, Slice right)
     {
         Slice result = unscaledDecimal();
@@ -454,6 +631,17 @@ public final class UnscaledDecimal128Arithmetic
     {
         checkArgument(result.length() == NUMBER_OF_LONGS * Long.BYTES);
 
+        if (MULTIPLY_HIGH != null) {
+            long leftLow = getLong(left, 0);
+            long rightLow = getLong(right, 0);
+            long high = multiplyHighUnsigned(leftLow, getLong(left, 1), rightLow, getLong(right, 1));
+            if (high < 0) {
+                throwOverflowException();
+            }
+            pack(result, leftLow * rightLow, high, isNegative(left) != isNegative(right));
+            return;
+        }
+
         long l0 = toUnsignedLong(getInt(left, 0));
         long l1 = toUnsignedLong(getInt(left, 1));
         long l2 = toUnsignedLong(getInt(left, 2));
@@ -531,10 +719,105 @@ public final class UnscaledDecimal128Arithmetic
         pack(result, (int) z0, (int) z1, (int) z2, (int) z3, isNegative(left) != isNegative(right));
     }
 
+    /**
+     * Multiplies decimals given by their raw (low, high) longs and stores the raw longs of the product
+     * at {@code result[resultOffset]} and {@code result[resultOffset + 1]}, without allocating
+     */
+    public static void multiply(long leftRawLow, long leftRawHigh, long rightRawLow, long rightRawHigh, long[] result, int resultOffset)
+    {
+        if (!multiplyUnsigned(leftRawLow, unpackUnsignedLong(leftRawHigh), rightRawLow, unpackUnsignedLong(rightRawHigh), result, resultOffset)) {
+            throwOverflowException();
+        }
+        if (isNegative(leftRawLow, leftRawHigh) != isNegative(rightRawLow, rightRawHigh)) {
+            result[resultOffset + 1] |= SIGN_LONG_MASK;
+        }
+    }
+
+    /**
+     * Multiplies the unsigned 127 bit values, returns false if the product does not fit in 127 bits
+     */
+    private static boolean multiplyUnsigned(long leftLow, long leftHigh, long rightLow, long rightHigh, long[] result, int resultOffset)
+    {
+        long high = multiplyHighUnsigned(leftLow, leftHigh, rightLow, rightHigh);
+        if (high < 0) {
+            return false;
+        }
+        result[resultOffset] = leftLow * rightLow;
+        result[resultOffset + 1] = high;
+        return true;
+    }
+
+    /**
+     * High 64 bits of the product of the unsigned 127 bit values, negative if the product does not fit in 127 bits
+     */
+    private static long multiplyHighUnsigned(long leftLow, long leftHigh, long rightLow, long rightHigh)
+    {
+        long high = unsignedMultiplyHigh(leftLow, rightLow);
+        if (leftHigh == 0 && rightHigh == 0) {
+            return high;
+        }
+        if (leftHigh != 0 && rightHigh != 0) {
+            return -1;
+        }
+        long crossLeft = leftHigh != 0 ? leftHigh : rightHigh;
+        long crossRight = leftHigh != 0 ? rightLow : leftLow;
+        long cross = crossLeft * crossRight;
+        if (unsignedMultiplyHigh(crossLeft, crossRight) != 0 || cross < 0 || high < 0) {
+            return -1;
+        }
+        return high + cross;
+    }
+
+    /**
+     * High 64 bits of the unsigned 128 bit product
+     */
+    private static long unsignedMultiplyHigh(long left, long right)
+    {
+        if (MULTIPLY_HIGH != null) {
+            // from the signed product (HD 8-3)
+            return multiplyHigh(left, right) + ((left >> 63) & right) + ((right >> 63) & left);
+        }
+
+        // HD 8-2
+        long left0 = left & LOW_32_BITS;
+        long left1 = left >>> 32;
+        long right0 = right & LOW_32_BITS;
+        long right1 = right >>> 32;
+
+        long product = left1 * right0 + ((left0 * right0) >>> 32);
+        long middle = left0 * right1 + (product & LOW_32_BITS);
+        return left1 * right1 + (product >>> 32) + (middle >>> 32);
+    }
+
+    private static long multiplyHigh(long left, long right)
+    {
+        try {
+            return (long) MULTIPLY_HIGH.invokeExact(left, right);
+        }
+        catch (Throwable t) {
+            throw new AssertionError(t);
+        }
+    }
+
+    private static MethodHandle multiplyHighMethodHandle()
+    {
+        try {
+            return MethodHandles.publicLookup().findStatic(Math.class, "multiplyHigh", methodType(long.class, long.class, long.class));
+        }
+        catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
     public static void multiply256(Slice left, Slice right, Slice result)
     {
         checkArgument(result.length() >= NUMBER_OF_LONGS * Long.BYTES * 2);
 
+        if (MULTIPLY_HIGH != null) {
+            multiply256Longs(left, right, result);
+            return;
+        }
+
         long l0 = toUnsignedLong(getInt(left, 0));
         long l1 = toUnsignedLong(getInt(left, 1));
         long l2 = toUnsignedLong(getInt(left, 2));
@@ -624,6 +907,37 @@ public final class UnscaledDecimal128Arithmetic
         setRawInt(result, 7, (int) z7);
     }
 
+    private static void multiply256Longs(Slice left, Slice right, Slice result)
+    {
+        long l0 = getLong(left, 0);
+        long l1 = getLong(left, 1);
+        long r0 = getLong(right, 0);
+        long r1 = getLong(right, 1);
+
+        // the high halves are below 2^63, so are the high 64 bits of the products with them
+        long z0 = l0 * r0;
+        long z1 = unsignedMultiplyHigh(l0, r0);
+
+        long product = l0 * r1;
+        z1 += product;
+        long z2 = unsignedMultiplyHigh(l0, r1) + (Long.compareUnsigned(z1, product) < 0 ? 1 : 0);
+
+        product = l1 * r0;
+        z1 += product;
+        product = unsignedMultiplyHigh(l1, r0) + (Long.compareUnsigned(z1, product) < 0 ? 1 : 0);
+        z2 += product;
+        long z3 = Long.compareUnsigned(z2, product) < 0 ? 1 : 0;
+
+        product = l1 * r1;
+        z2 += product;
+        z3 += unsignedMultiplyHigh(l1, r1) + (Long.compareUnsigned(z2, product) < 0 ? 1 : 0);
+
+        setRawLong(result, 0, z0);
+        setRawLong(result, 1, z1);
+        setRawLong(result, 2, z2);
+        setRawLong(result, 3, z3);
+    }
+
     public static Slice multiply(Slice decimal, int multiplier)
     {
         Slice result = Slices.copyOf(decimal);
@@ -772,25 +1086,7 @@ public final class UnscaledDecimal128Arithmetic
 
     public static String toUnscaledString(Slice decimal)
     {
-        if (isZero(decimal)) {
-            return "0";
-        }
-
-        char[] buffer = new char[MAX_PRECISION + 1];
-        int index = buffer.length;
-        boolean negative = isNegative(decimal);
-        decimal = unscaledDecimal(decimal);
-        do {
-            int remainder = divide(decimal, 10, decimal);
-            buffer[--index] = (char) ('0' + remainder);
-        }
-        while (!isZero(decimal));
-
-        if (negative) {
-            buffer[--index] = '-';
-        }
-
-        return new String(buffer, index, buffer.length - index);
+        return Decimals.toString(decimal, 0);
     }
 
     public static boolean overflows(Slice value, int precision)
@@ -801,6 +1097,15 @@ public final class UnscaledDecimal128Arithmetic
         return precision < MAX_PRECISION && compareAbsolute(value, POWERS_OF_TEN[precision]) >= 0;
     }
 
+    public static boolean overflows(long rawLow, long rawHigh, int precision)
+    {
+        long high = unpackUnsignedLong(rawHigh);
+        if (precision == MAX_PRECISION) {
+            return exceedsOrEqualTenToThirtyEight(rawLow, high);
+        }
+        return precision < MAX_PRECISION && compareUnsigned(rawLow, high, POWERS_OF_TEN_LOW[precision], POWERS_OF_TEN_HIGH[precision]) >= 0;
+    }
+
     public static void throwIfOverflows(Slice decimal)
     {
         if (exceedsOrEqualTenToThirtyEight(decimal)) {
@@ -1085,6 +1390,13 @@ public final class UnscaledDecimal128Arithmetic
     }
 
     private static Slice divideRoundUp(long dividendLow, long dividendHigh, int dividendScaleFactor, long divisorLow, long divisorHigh)
+    {
+        long[] quotient = new long[NUMBER_OF_LONGS];
+        divideRoundUp(dividendLow, dividendHigh, dividendScaleFactor, divisorLow, divisorHigh, quotient, 0);
+        return Slices.wrappedLongArray(quotient);
+    }
+
+    private static Slice divideRoundUpMultiPrecision(long dividendLow, long dividendHigh, int dividendScaleFactor, long divisorLow, long divisorHigh)
     {
         Slice quotient = unscaledDecimal();
         Slice remainder = unscaledDecimal();
@@ -1109,6 +1421,41 @@ public final class UnscaledDecimal128Arithmetic
         return quotient;
     }
 
+    /**
+     * Divides decimals given by their raw (low, high) longs, rounding half up, and stores the raw
+     * longs of the quotient at {@code result[resultOffset]} and {@code result[resultOffset + 1]}.
+     * Does not allocate when the divisor fits in 64 bits and the scaled dividend in 127 bits,
+     * other values fall back to multi precision division.
+     */
+    public static void divideRoundUp(long dividendRawLow, long dividendRawHigh, int dividendScaleFactor, long divisorRawLow, long divisorRawHigh, long[] result, int resultOffset)
+    {
+        long divisorHigh = unpackUnsignedLong(divisorRawHigh);
+        if (divisorRawLow == 0 && divisorHigh == 0) {
+            throwDivisionByZeroException();
+        }
+        if (divisorHigh != 0 || !scaleUpUnsigned(dividendRawLow, unpackUnsignedLong(dividendRawHigh), dividendScaleFactor, result, resultOffset)) {
+            Slice quotient = divideRoundUpMultiPrecision(dividendRawLow, dividendRawHigh, dividendScaleFactor, divisorRawLow, divisorRawHigh);
+            result[resultOffset] = getRawLong(quotient, 0);
+            result[resultOffset + 1] = getRawLong(quotient, 1);
+            return;
+        }
+
+        long remainder = divideUnsigned(result[resultOffset], result[resultOffset + 1], divisorRawLow, result, resultOffset);
+        long low = result[resultOffset];
+        long high = result[resultOffset + 1];
+        // 2 * remainder >= divisor, without overflowing
+        if (Long.compareUnsigned(remainder, divisorRawLow - remainder) >= 0) {
+            low++;
+            if (low == 0) {
+                high++;
+            }
+        }
+        if (exceedsOrEqualTenToThirtyEight(low, high)) {
+            throwOverflowException();
+        }
+        pack(low, high, isNegative(dividendRawLow, dividendRawHigh) != isNegative(divisorRawLow, divisorRawHigh), result, resultOffset);
+    }
+
     // visible for testing
     static Slice shiftLeft(Slice decimal, int leftShifts)
     {
@@ -1196,6 +1543,13 @@ public final class UnscaledDecimal128Arithmetic
     }
 
     private static Slice remainder(long dividendLow, long dividendHigh, int dividendScaleFactor, long divisorLow, long divisorHigh, int divisorScaleFactor)
+    {
+        long[] remainder = new long[NUMBER_OF_LONGS];
+        remainder(dividendLow, dividendHigh, dividendScaleFactor, divisorLow, divisorHigh, divisorScaleFactor, remainder, 0);
+        return Slices.wrappedLongArray(remainder);
+    }
+
+    private static Slice remainderMultiPrecision(long dividendLow, long dividendHigh, int dividendScaleFactor, long divisorLow, long divisorHigh, int divisorScaleFactor)
     {
         Slice quotient = unscaledDecimal();
         Slice remainder = unscaledDecimal();
@@ -1203,6 +1557,53 @@ public final class UnscaledDecimal128Arithmetic
         return remainder;
     }
 
+    /**
+     * Remainder of decimals given by their raw (low, high) longs, stored at {@code result[resultOffset]}
+     * and {@code result[resultOffset + 1]}. Does not allocate when the scaled divisor fits in 64 bits
+     * and the scaled dividend in 127 bits, other values fall back to multi precision division.
+     */
+    public static void remainder(long dividendRawLow, long dividendRawHigh, int dividendScaleFactor, long divisorRawLow, long divisorRawHigh, int divisorScaleFactor, long[] result, int resultOffset)
+    {
+        if (divisorRawLow == 0 && unpackUnsignedLong(divisorRawHigh) == 0) {
+            throwDivisionByZeroException();
+        }
+        long divisor = 0;
+        boolean fits = scaleUpUnsigned(divisorRawLow, unpackUnsignedLong(divisorRawHigh), divisorScaleFactor, result, resultOffset) && result[resultOffset + 1] == 0;
+        if (fits) {
+            divisor = result[resultOffset];
+            fits = scaleUpUnsigned(dividendRawLow, unpackUnsignedLong(dividendRawHigh), dividendScaleFactor, result, resultOffset);
+        }
+        if (!fits) {
+            Slice remainder = remainderMultiPrecision(dividendRawLow, dividendRawHigh, dividendScaleFactor, divisorRawLow, divisorRawHigh, divisorScaleFactor);
+            result[resultOffset] = getRawLong(remainder, 0);
+            result[resultOffset + 1] = getRawLong(remainder, 1);
+            return;
+        }
+
+        long remainder = divideUnsigned(result[resultOffset], result[resultOffset + 1], divisor, result, resultOffset);
+        if (exceedsOrEqualTenToThirtyEight(result[resultOffset], result[resultOffset + 1])) {
+            // quotient overflows
+            throwOverflowException();
+        }
+        pack(remainder, 0, isNegative(dividendRawLow, dividendRawHigh), result, resultOffset);
+    }
+
+    /**
+     * Multiplies the unsigned 127 bit value by 10^scaleFactor, returns false if the product does not fit in 127 bits
+     */
+    private static boolean scaleUpUnsigned(long low, long high, int scaleFactor, long[] result, int resultOffset)
+    {
+        if (scaleFactor >= MAX_PRECISION) {
+            return false;
+        }
+        if (scaleFactor == 0) {
+            result[resultOffset] = low;
+            result[resultOffset + 1] = high;
+            return true;
+        }
+        return multiplyUnsigned(low, high, POWERS_OF_TEN_LOW[scaleFactor], POWERS_OF_TEN_HIGH[scaleFactor], result, resultOffset);
+    }
+
     // visible for testing
     static void divide(Slice dividend, int dividendScaleFactor, Slice divisor, int divisorScaleFactor, Slice quotient, Slice remainder)
     {
@@ -1390,6 +1791,55 @@ public final class UnscaledDecimal128Arithmetic
         return quotient;
     }
 
+    /**
+     * Divides the unsigned 127 bit value by the unsigned 64 bit divisor, stores the quotient at
+     * {@code quotient[quotientOffset]} and {@code quotient[quotientOffset + 1]} and returns the remainder
+     */
+    private static long divideUnsigned(long dividendLow, long dividendHigh, long divisor, long[] quotient, int quotientOffset)
+    {
+        // the dividend high is below 2^63, so it is smaller than divisors that do not fit in a signed long
+        long quotientHigh = 0;
+        if (divisor > 0) {
+            quotientHigh = dividendHigh / divisor;
+            dividendHigh %= divisor;
+        }
+
+        // HD 9-3, divlu: normalize the divisor, then divide in two 32 bit steps
+        int shift = Long.numberOfLeadingZeros(divisor);
+        divisor <<= shift;
+        long high = shift == 0 ? dividendHigh : (dividendHigh << shift) | (dividendLow >>> (64 - shift));
+        long low = dividendLow << shift;
+        long divisor1 = divisor >>> 32;
+        long divisor0 = divisor & LOW_32_BITS;
+        long low1 = low >>> 32;
+        long low0 = low & LOW_32_BITS;
+
+        long quotient1 = divideUnsignedLong(high, (int) divisor1);
+        long remainder = high - quotient1 * divisor1;
+        while (quotient1 >= INT_BASE || Long.compareUnsigned(quotient1 * divisor0, (remainder << 32) | low1) > 0) {
+            quotient1--;
+            remainder += divisor1;
+            if (remainder >= INT_BASE) {
+                break;
+            }
+        }
+
+        long middle = ((high << 32) | low1) - quotient1 * divisor;
+        long quotient0 = divideUnsignedLong(middle, (int) divisor1);
+        remainder = middle - quotient0 * divisor1;
+        while (quotient0 >= INT_BASE || Long.compareUnsigned(quotient0 * divisor0, (remainder << 32) | low0) > 0) {
+            quotient0--;
+            remainder += divisor1;
+            if (remainder >= INT_BASE) {
+                break;
+            }
+        }
+
+        quotient[quotientOffset] = (quotient1 << 32) | quotient0;
+        quotient[quotientOffset + 1] = quotientHigh;
+        return (((middle << 32) | low0) - quotient0 * divisor) >>> shift;
+    }
+
     /**
      * Calculate multi-precision [left - right * multiplier] with given left offset and length.
      * Return true when overflow occurred
@@ -1682,19 +2132,21 @@ public final class UnscaledDecimal128Arithmetic
     }
 
     private static boolean exceedsOrEqualTenToThirtyEight(Slice decimal)
+    {
+        return exceedsOrEqualTenToThirtyEight(getLong(decimal, 0), getLong(decimal, 1));
+    }
+
+    private static boolean exceedsOrEqualTenToThirtyEight(long low, long high)
     {
         // 10**38=
         // i0 = 0(0), i1 = 160047680(98a22400), i2 = 1518781562(5a86c47a), i3 = 1262177448(4b3b4ca8)
         // low = 0x98a2240000000000l, high = 0x4b3b4ca85a86c47al
-        long high = getLong(decimal, 1);
         if (high >= 0 && high < 0x4b3b4ca85a86c47aL) {
             return false;
         }
         if (high != 0x4b3b4ca85a86c47aL) {
             return true;
         }
-
-        long low = getLong(decimal, 0);
         return low < 0 || low >= 0x098a224000000000L;
     }
 
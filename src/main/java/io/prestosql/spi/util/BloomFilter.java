@@ -29,6 +29,7 @@ import java.math.RoundingMode;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
 import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
 import static io.airlift.slice.SizeOf.sizeOf;
 import static java.lang.Double.doubleToLongBits;
@@ -59,6 +60,8 @@ public class BloomFilter
 
     // from 64-bit linear congruential generator
     private static final long NULL_HASHCODE = 2862933555777941757L;
+    // written instead of the number of hash functions, which is positive in the classic format
+    static final int SPLIT_BLOCK_FORMAT = -1;
 
     private final BitSet bitSet;
     private final int numHashFunctions;
@@ -100,7 +103,7 @@ public class BloomFilter
 
     // Thomas Wang's integer hash function
     // http://web.archive.org/web/20071223173210/http://www.concentric.net/~Ttwang/tech/inthash.htm
-    private static long getLongHash(long key)
+    static long getLongHash(long key)
     {
         key = (~key) + (key << 21); // key = (key << 21) - key - 1;
         key ^= (key >> 24);
@@ -133,6 +136,9 @@ public class BloomFilter
             for (int i = 0; i < numBits; i++) {
                 bits[i] = dataInputStream.readLong();
             }
+            if (numHashFunctions == SPLIT_BLOCK_FORMAT) {
+                return new SplitBlockBloomFilter(bits);
+            }
             return new BloomFilter(bits, numHashFunctions);
         }
         catch (IOException e) {
@@ -160,6 +166,10 @@ public class BloomFilter
             return;
         }
 
+        if (getClass() != that.getClass()) {
+            throw new IllegalArgumentException("BloomFilter to merge must have the same layout");
+        }
+
         if (numHashFunctions != that.getNumHashFunctions()) {
             throw new IllegalArgumentException("BloomFilter to merge must have same number of hash functions");
         }
@@ -201,7 +211,7 @@ public class BloomFilter
         addHash(hash64);
     }
 
-    private void addHash(long hash64)
+    void addHash(long hash64)
     {
         int hash1 = (int) hash64;
         int hash2 = (int) (hash64 >>> 32);
@@ -224,8 +234,17 @@ public class BloomFilter
 
     public void add(Slice val)
     {
-        byte[] bytesValue = (val == null) ? null : val.getBytes();
-        add(bytesValue);
+        long hash64 = (val == null) ? NULL_HASHCODE : OrcMurmur3.hash64(val);
+        addHash(hash64);
+    }
+
+    /**
+     * Adds the {@code length} bytes at {@code offset} in the slice, same as adding a copy of them.
+     */
+    public void add(Slice val, int offset, int length)
+    {
+        long hash64 = (val == null) ? NULL_HASHCODE : OrcMurmur3.hash64(val, offset, length);
+        addHash(hash64);
     }
 
     public void addLong(long val)
@@ -255,7 +274,16 @@ public class BloomFilter
         return testHash(hash64);
     }
 
-    private boolean testHash(long hash64)
+    /**
+     * Tests the {@code length} bytes at {@code offset} in the slice without copying them.
+     */
+    public boolean test(Slice val, int offset, int length)
+    {
+        long hash64 = (val == null) ? NULL_HASHCODE : OrcMurmur3.hash64(val, offset, length);
+        return testHash(hash64);
+    }
+
+    boolean testHash(long hash64)
     {
         int hash1 = (int) hash64;
         int hash2 = (int) (hash64 >>> 32);
@@ -279,6 +307,17 @@ public class BloomFilter
         return testHash(getLongHash(val));
     }
 
+    /**
+     * Tests the first {@code count} keys, same as {@link #test(long)} for each of them.
+     */
+    public void test(long[] keys, int count, boolean[] results)
+    {
+        checkArgument(count <= keys.length && count <= results.length, "count exceeds the array lengths");
+        for (int i = 0; i < count; i++) {
+            results[i] = testHash(getLongHash(keys[i]));
+        }
+    }
+
     public boolean test(double val)
     {
         return test(doubleToLongBits(val));
@@ -350,13 +389,23 @@ public class BloomFilter
     {
         DataOutputStream dataOutputStream = new DataOutputStream(out);
         long[] bits = bitSet.getData();
-        dataOutputStream.writeInt(numHashFunctions);
+        dataOutputStream.writeInt(getSerializedFormat());
         dataOutputStream.writeInt(bits.length);
         for (int i = 0; i < bits.length; i++) {
             dataOutputStream.writeLong(bits[i]);
         }
     }
 
+    int getSerializedFormat()
+    {
+        return numHashFunctions;
+    }
+
+    void setBit(int index)
+    {
+        bitSet.set(index);
+    }
+
     @Override
     public String toString()
     {
@@ -527,14 +576,24 @@ public class BloomFilter
             return hash;
         }
 
-        @SuppressWarnings("fallthrough")
         public static long hash64(Slice data)
         {
+            return hash64(data, 0, data.length());
+        }
+
+        /**
+         * Same as {@link #hash64(byte[])} of the {@code length} bytes at {@code offset} in the slice.
+         */
+        @SuppressWarnings("fallthrough")
+        public static long hash64(Slice data, int offset, int length)
+        {
+            checkPositionIndexes(offset, offset + length, data.length());
+
             long hash = DEFAULT_SEED;
-            int fastLimit = (data.length() - SIZE_OF_LONG) + 1;
+            int fastLimit = (offset + length - SIZE_OF_LONG) + 1;
 
             // body
-            int current = 0;
+            int current = offset;
             while (current < fastLimit) {
                 long k = UnsafeSlice.getLongUnchecked(data, current);
                 current += SIZE_OF_LONG;
@@ -549,7 +608,7 @@ public class BloomFilter
 
             // tail
             long k = 0;
-            switch (data.length() - current) {
+            switch (offset + length - current) {
                 case 7:
                     k ^= ((long) UnsafeSlice.getByteUnchecked(data, current + 6) & 0xff) << 48;
                 case 6:
@@ -571,7 +630,7 @@ public class BloomFilter
             }
 
             // finalization
-            hash ^= data.length();
+            hash ^= length;
             hash = fmix64(hash);
 
             return hash;
@@ -0,0 +1,134 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.util;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Split block Bloom filter: the bits are split into 512 bit blocks, one cache line each, and every
+ * key sets one bit in each of the eight longs of a single block. A probe therefore touches one
+ * cache line instead of up to {@code k} scattered ones, and needs no modulo: the block is chosen
+ * by multiply-shift of the high half of the hash, the bits by salted multiplies of the low half.
+ * <p>
+ * For the same false positive probability the filter needs somewhat more bits than the classic
+ * layout, which the sizing accounts for. Serialized filters are read back by {@link BloomFilter#readFrom}.
+ * <p>
+ * Based on the split block Bloom filter of Apache Impala and Apache Parquet.
+ */
+public class SplitBlockBloomFilter
+        extends BloomFilter
+{
+    private static final int LONGS_PER_BLOCK = 8;
+    private static final int BITS_PER_BLOCK = LONGS_PER_BLOCK * Long.SIZE;
+    private static final double MAX_BITS_PER_KEY = 64;
+    private static final int[] SALTS = {
+            0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d,
+            0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31,
+    };
+
+    private final long[] data;
+    private final int numBlocks;
+
+    public SplitBlockBloomFilter(long expectedEntries, double fpp)
+    {
+        this(new long[numOfBlocks(expectedEntries, fpp) * LONGS_PER_BLOCK]);
+    }
+
+    /**
+     * A constructor to support rebuilding the filter from a serialized representation.
+     */
+    public SplitBlockBloomFilter(long[] bits)
+    {
+        super(bits, LONGS_PER_BLOCK);
+        checkArgument(bits.length > 0 && bits.length % LONGS_PER_BLOCK == 0, "bits must be a positive multiple of %s longs", LONGS_PER_BLOCK);
+        this.data = getBitSet();
+        this.numBlocks = bits.length / LONGS_PER_BLOCK;
+    }
+
+    static int numOfBlocks(long n, double p)
+    {
+        checkArgument(n > 0, "expectedEntries should be > 0");
+        checkArgument(p > 0.0 && p < 1.0, "False positive probability should be > 0.0 & < 1.0");
+        // start from the classic optimum and grow until the blocked layout reaches the probability
+        double bitsPerKey = Math.max(1, -Math.log(p) / (Math.log(2) * Math.log(2)));
+        while (bitsPerKey < MAX_BITS_PER_KEY && estimateFpp(bitsPerKey) > p) {
+            bitsPerKey *= 1.05;
+        }
+        double blocks = Math.ceil(n * Math.min(bitsPerKey, MAX_BITS_PER_KEY) / BITS_PER_BLOCK);
+        return (int) Math.min(blocks, Integer.MAX_VALUE / BITS_PER_BLOCK);
+    }
+
+    /**
+     * Estimates the false positive probability for the given bits per key. The number of keys in
+     * a block is Poisson distributed, and a block with j keys has each of its longs' probed bit set
+     * with probability 1 - (63/64)^j.
+     */
+    static double estimateFpp(double bitsPerKey)
+    {
+        double keysPerBlock = BITS_PER_BLOCK / bitsPerKey;
+        int maxKeys = (int) (keysPerBlock + 12 * Math.sqrt(keysPerBlock) + 20);
+        double probability = Math.exp(-keysPerBlock);
+        double fpp = 0;
+        for (int keys = 0; keys <= maxKeys; keys++) {
+            if (keys > 0) {
+                probability *= keysPerBlock / keys;
+            }
+            fpp += probability * Math.pow(1 - Math.pow(1 - 1.0 / Long.SIZE, keys), LONGS_PER_BLOCK);
+        }
+        return fpp;
+    }
+
+    @Override
+    void addHash(long hash64)
+    {
+        int firstLong = blockIndex(hash64) * LONGS_PER_BLOCK;
+        int key = (int) hash64;
+        for (int i = 0; i < LONGS_PER_BLOCK; i++) {
+            setBit((firstLong + i) * Long.SIZE + ((key * SALTS[i]) >>> 26));
+        }
+    }
+
+    @Override
+    boolean testHash(long hash64)
+    {
+        int firstLong = blockIndex(hash64) * LONGS_PER_BLOCK;
+        int key = (int) hash64;
+        // no early exit, the block is a single cache line and the loop has no branches
+        long missing = 0;
+        for (int i = 0; i < LONGS_PER_BLOCK; i++) {
+            missing |= ~data[firstLong + i] & (1L << ((key * SALTS[i]) >>> 26));
+        }
+        return missing == 0;
+    }
+
+    @Override
+    public void test(long[] keys, int count, boolean[] results)
+    {
+        checkArgument(count <= keys.length && count <= results.length, "count exceeds the array lengths");
+        for (int i = 0; i < count; i++) {
+            results[i] = testHash(getLongHash(keys[i]));
+        }
+    }
+
+    private int blockIndex(long hash64)
+    {
+        return (int) (((hash64 >>> 32) * numBlocks) >>> 32);
+    }
+
+    @Override
+    int getSerializedFormat()
+    {
+        return SPLIT_BLOCK_FORMAT;
+    }
+}